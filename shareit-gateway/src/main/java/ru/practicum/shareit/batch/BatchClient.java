@@ -0,0 +1,173 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import ru.practicum.shareit.batch.dto.BatchItemDto;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.client.*;
+import ru.practicum.shareit.exception.NotValidParameterException;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+import ru.practicum.shareit.exception.UnsupportedStateException;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+import ru.practicum.shareit.ratelimit.RouteGroup;
+
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@Slf4j
+@Service
+public class BatchClient extends BaseClient {
+    private final String serverUrl;
+    private final ExecutorService executor;
+    private final ObjectProvider<RateLimiter> rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final int parallelism;
+
+    @Autowired
+    public BatchClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                       GatewayTransport transport,
+                       RequestCoalescer coalescer, ValidatorCache validators,
+                       ResponseCache responses, UserIdCache userIds,
+                       ObjectProvider<RateLimiter> rateLimiter, ObjectMapper objectMapper,
+                       @Value("${shareit-gateway.batch.parallelism:4}") int parallelism,
+                       @Value("${shareit-gateway.batch.threads:16}") int threads) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
+                        .build(),
+                transport,
+                coalescer,
+                validators,
+                responses,
+                userIds
+        );
+        this.serverUrl = serverUrl;
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.parallelism = parallelism;
+        this.executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("gateway-batch-"));
+    }
+
+    public CompletableFuture<List<BatchResultDto>> execute(long userId, String remoteAddr,
+                                                           List<BatchItemDto> requests) {
+        BatchResultDto[] results = new BatchResultDto[requests.size()];
+        AtomicInteger next = new AtomicInteger();
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.min(parallelism, requests.size())];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = runNext(userId, remoteAddr, requests, results, next);
+        }
+        return CompletableFuture.allOf(workers).thenApply(done -> Arrays.asList(results));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private CompletableFuture<Void> runNext(long userId, String remoteAddr, List<BatchItemDto> requests,
+                                            BatchResultDto[] results, AtomicInteger next) {
+        int index = next.getAndIncrement();
+        if (index >= requests.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        BatchItemDto request = requests.get(index);
+        return CompletableFuture.supplyAsync(() -> send(userId, remoteAddr, request), executor)
+                .thenCompose(Function.identity())
+                .handle((response, error) -> error == null ? response : failed(request, error))
+                .thenCompose(result -> {
+                    results[index] = result;
+                    return runNext(userId, remoteAddr, requests, results, next);
+                });
+    }
+
+    private CompletableFuture<BatchResultDto> send(long userId, String remoteAddr, BatchItemDto request) {
+        if (!HttpMethod.GET.matches(request.getMethod().toUpperCase())) {
+            return CompletableFuture.completedFuture(error(request, 405, "Некорректное значение",
+                    "В пакетном запросе поддерживаются только GET-запросы."));
+        }
+        String path = request.getPath();
+        UriComponents components;
+        try {
+            components = BatchPathValidator.validate(path);
+        } catch (NotValidParameterException e) {
+            return CompletableFuture.completedFuture(error(request, 400, "Некорректное значение", e.getMessage()));
+        } catch (UnsupportedStateException e) {
+            return CompletableFuture.completedFuture(error(request, 500, "error", e.getMessage()));
+        }
+        RateLimiter limiter = rateLimiter.getIfAvailable();
+        if (limiter != null) {
+            RouteGroup group = path.contains("/search") ? RouteGroup.SEARCH : RouteGroup.READS;
+            String address = "ip " + remoteAddr;
+            String client = userIds.isKnown(userId) ? "user " + userId : address;
+            if (limiter.tryAcquire(group, client, address) > 0) {
+                return CompletableFuture.completedFuture(error(request, 429, "Слишком много запросов",
+                        "Лимит запросов исчерпан."));
+            }
+        }
+        URI uri = UriComponentsBuilder.fromUriString(serverUrl)
+                .path(components.getPath())
+                .query(components.getQuery())
+                .build(true)
+                .toUri();
+        return get(uri, userId).thenApply(response -> result(request, response));
+    }
+
+    private BatchResultDto result(BatchItemDto request, ResponseEntity<Object> response) {
+        String body = null;
+        MediaType contentType = response.getHeaders().getContentType();
+        if (response.getBody() instanceof byte[] && contentType != null
+                && MediaType.APPLICATION_JSON.isCompatibleWith(contentType)) {
+            body = new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+        }
+        return new BatchResultDto(request.getMethod(), request.getPath(), response.getStatusCodeValue(), body);
+    }
+
+    private BatchResultDto failed(BatchItemDto request, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof UserNotFoundException) {
+            return error(request, 404, "Объект не найден", cause.getMessage());
+        }
+        if (cause instanceof ServiceUnavailableException) {
+            return error(request, 503, "Сервер недоступен", cause.getMessage());
+        }
+        if (cause instanceof ResourceAccessException) {
+            return error(request, 503, "Сервер недоступен", "Не удалось получить ответ от сервера.");
+        }
+        log.error("Ошибка выполнения пакетного запроса {}: {}", request.getPath(), cause.getMessage());
+        return error(request, 500, "error", cause.getMessage());
+    }
+
+    private BatchResultDto error(BatchItemDto request, int status, String title, String message) {
+        try {
+            return new BatchResultDto(request.getMethod(), request.getPath(), status,
+                    objectMapper.writeValueAsString(Map.of(title, String.valueOf(message))));
+        } catch (JsonProcessingException e) {
+            return new BatchResultDto(request.getMethod(), request.getPath(), status, null);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.batch;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.batch.dto.BatchItemDto;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.constants.Request;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping(path = "/batch")
+@Validated
+@RequiredArgsConstructor
+public class BatchController {
+    private final BatchClient batchClient;
+
+    @PostMapping
+    public CompletableFuture<List<BatchResultDto>> execute(@RequestHeader(Request.USER_ID) Long userId,
+                                                           @RequestBody @NotNull @Size(min = 1, max = 20)
+                                                           List<@Valid BatchItemDto> requests,
+                                                           HttpServletRequest request) {
+        return batchClient.execute(userId, request.getRemoteAddr(), requests);
+    }
+}
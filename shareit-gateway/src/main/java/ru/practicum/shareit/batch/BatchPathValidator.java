@@ -0,0 +1,183 @@
+package ru.practicum.shareit.batch;
+
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.exception.NotValidParameterException;
+import ru.practicum.shareit.exception.UnsupportedStateException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Проверяет путь пакетного запроса так же, как это сделали бы контроллеры шлюза: допускаются
+ * только перечисленные маршруты чтения и только их параметры с теми же ограничениями.
+ */
+final class BatchPathValidator {
+    private static final Pattern SAFE_PATH = Pattern.compile("^/[\\w/-]*(\\?[^#{}]*)?$");
+    private static final String ID = "\\d{1,18}";
+
+    private static final List<Route> ROUTES = List.of(
+            new Route("/users", Map.of(
+                    "from", Param.number(0, Integer.MAX_VALUE),
+                    "size", Param.number(1, 1000).required(),
+                    "afterId", Param.number(0, Long.MAX_VALUE))),
+            new Route("/users/" + ID, Map.of()),
+            new Route("/items", Map.of(
+                    "from", Param.number(0, Integer.MAX_VALUE),
+                    "size", Param.number(1, Integer.MAX_VALUE))),
+            new Route("/items/popular", Map.of(
+                    "window", Param.matching("\\d+[mhd]"),
+                    "size", Param.number(1, 100))),
+            new Route("/items/search", Map.of(
+                    "text", Param.any(),
+                    "from", Param.number(0, Integer.MAX_VALUE),
+                    "size", Param.number(1, Integer.MAX_VALUE))),
+            new Route("/items/" + ID, Map.of()),
+            new Route("/bookings", Map.of(
+                    "state", Param.state(),
+                    "from", Param.number(0, Integer.MAX_VALUE),
+                    "size", Param.number(1, Integer.MAX_VALUE))),
+            new Route("/bookings/owner", Map.of(
+                    "state", Param.state(),
+                    "from", Param.number(0, Integer.MAX_VALUE),
+                    "size", Param.number(1, Integer.MAX_VALUE))),
+            new Route("/bookings/" + ID, Map.of()),
+            new Route("/requests", Map.of()),
+            new Route("/requests/summary", Map.of(
+                    "replies", Param.number(0, 20))),
+            new Route("/requests/all", Map.of(
+                    "from", Param.number(0, Integer.MAX_VALUE),
+                    "size", Param.number(1, Integer.MAX_VALUE))),
+            new Route("/requests/feed", Map.of(
+                    "cursor", Param.any(),
+                    "size", Param.number(1, 100))),
+            new Route("/requests/suggestions", Map.of()),
+            new Route("/requests/" + ID, Map.of())
+    );
+
+    private BatchPathValidator() {
+    }
+
+    /**
+     * Возвращает разобранный путь в том виде, в каком он будет отправлен серверу: проверка
+     * и отправка читают одни и те же уже закодированные компоненты.
+     */
+    static UriComponents validate(String path) {
+        if (!SAFE_PATH.matcher(path).matches()) {
+            throw new NotValidParameterException("Недопустимый путь запроса: " + path);
+        }
+        UriComponents uri;
+        try {
+            uri = UriComponentsBuilder.fromUriString(path).build(true);
+        } catch (IllegalArgumentException e) {
+            throw new NotValidParameterException("Путь запроса должен быть закодирован: " + path);
+        }
+        String routePath = uri.getPath();
+        if (routePath.length() > 1 && routePath.endsWith("/")) {
+            routePath = routePath.substring(0, routePath.length() - 1);
+        }
+        for (Route route : ROUTES) {
+            if (route.path.matcher(routePath).matches()) {
+                route.validate(routePath, uri.getQueryParams());
+                return uri;
+            }
+        }
+        throw new NotValidParameterException("Недопустимый путь запроса: " + path);
+    }
+
+    private static class Route {
+        private final Pattern path;
+
+        private final Map<String, Param> params;
+
+        Route(String path, Map<String, Param> params) {
+            this.path = Pattern.compile(path);
+            this.params = params;
+        }
+
+        void validate(String routePath, MultiValueMap<String, String> query) {
+            for (Map.Entry<String, List<String>> entry : query.entrySet()) {
+                Param param = params.get(entry.getKey());
+                if (param == null) {
+                    throw new NotValidParameterException(String.format(
+                            "Параметр %s не поддерживается запросом %s.", entry.getKey(), routePath));
+                }
+                if (entry.getValue().size() > 1) {
+                    throw new NotValidParameterException("Параметр " + entry.getKey() + " указан несколько раз.");
+                }
+            }
+            params.forEach((name, param) -> {
+                String value = query.getFirst(name);
+                param.validate(name, value != null ? UriUtils.decode(value, StandardCharsets.UTF_8) : null);
+            });
+        }
+    }
+
+    private static class Param {
+        private final Predicate<String> check;
+
+        private final String message;
+
+        private final boolean state;
+
+        private final boolean required;
+
+        Param(Predicate<String> check, String message, boolean state, boolean required) {
+            this.check = check;
+            this.message = message;
+            this.state = state;
+            this.required = required;
+        }
+
+        static Param number(long min, long max) {
+            return new Param(value -> {
+                try {
+                    long number = Long.parseLong(value);
+                    return number >= min && number <= max;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }, String.format("должен быть числом от %d до %d", min, max), false, false);
+        }
+
+        static Param matching(String regex) {
+            Pattern pattern = Pattern.compile(regex);
+            return new Param(value -> pattern.matcher(value).matches(), "должен соответствовать " + regex,
+                    false, false);
+        }
+
+        static Param any() {
+            return new Param(value -> true, "", false, false);
+        }
+
+        static Param state() {
+            return new Param(value -> BookingState.from(value).isPresent(), "", true, false);
+        }
+
+        Param required() {
+            return new Param(check, message, state, true);
+        }
+
+        void validate(String name, String value) {
+            if (value == null || value.isEmpty()) {
+                if (required) {
+                    throw new NotValidParameterException("Не указан обязательный параметр " + name + ".");
+                }
+                return;
+            }
+            if (check.test(value)) {
+                return;
+            }
+            if (state) {
+                throw new UnsupportedStateException("Unknown state: UNSUPPORTED_STATUS");
+            }
+            throw new NotValidParameterException(String.format("Параметр %s %s.", name, message));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.*;
+
+import javax.validation.constraints.NotBlank;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class BatchItemDto {
+    @NotBlank(message = "Метод запроса не указан.")
+    private String method;
+
+    @NotBlank(message = "Путь запроса не указан.")
+    private String path;
+
+    private JsonNode body;
+}
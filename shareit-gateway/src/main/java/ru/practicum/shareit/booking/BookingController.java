@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -15,6 +16,7 @@ import ru.practicum.shareit.exception.UnsupportedStateException;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -25,7 +27,7 @@ public class BookingController {
 	private final BookingClient bookingClient;
 
 	@GetMapping
-	public ResponseEntity<Object> getBookings(@RequestHeader(Request.USER_ID) long userId,
+	public CompletableFuture<ResponseEntity<Object>> getBookings(@RequestHeader(Request.USER_ID) long userId,
 			@RequestParam(name = "state", defaultValue = "all") String stateParam,
 			@RequestParam(defaultValue = "0", required = false) @Min(0) Integer from,
 			@RequestParam(defaultValue = "10", required = false) @Min(1) Integer size) {
@@ -35,7 +37,7 @@ public class BookingController {
 	}
 
 	@PostMapping
-	public ResponseEntity<Object> bookItem(@RequestHeader(Request.USER_ID) long userId,
+	public CompletableFuture<ResponseEntity<Object>> bookItem(@RequestHeader(Request.USER_ID) long userId,
 			@RequestBody @Valid BookingDto requestDto) {
 		LocalDateTime end = requestDto.getEnd();
 		LocalDateTime start = requestDto.getStart();
@@ -46,14 +48,15 @@ public class BookingController {
 	}
 
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getBooking(@RequestHeader(Request.USER_ID) long userId,
-			@PathVariable Long bookingId) {
+	public CompletableFuture<ResponseEntity<Object>> getBooking(@RequestHeader(Request.USER_ID) long userId,
+			@PathVariable Long bookingId,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 		log.info("Get booking {}, userId={}", bookingId, userId);
-		return bookingClient.getBooking(userId, bookingId);
+		return bookingClient.getBooking(userId, bookingId, ifNoneMatch);
 	}
 
 	@GetMapping("/owner")
-	public ResponseEntity<Object> findAllBookingsForItems(@RequestHeader(Request.USER_ID) Long userId,
+	public CompletableFuture<ResponseEntity<Object>> findAllBookingsForItems(@RequestHeader(Request.USER_ID) Long userId,
 			@RequestParam(defaultValue = "ALL", required = false) String state,
 			@RequestParam(defaultValue = "0", required = false) @Min(0) int from,
 			@RequestParam(defaultValue = "10", required = false) @Min(1) int size) {
@@ -63,7 +66,7 @@ public class BookingController {
 	}
 
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> confirmBookingByOwner(@RequestHeader(Request.USER_ID) Long userId,
+	public CompletableFuture<ResponseEntity<Object>> confirmBookingByOwner(@RequestHeader(Request.USER_ID) Long userId,
 												  @PathVariable Long bookingId, @RequestParam Boolean approved) {
 		return bookingClient.confirmBookingByOwner(userId, bookingId, approved);
 	}
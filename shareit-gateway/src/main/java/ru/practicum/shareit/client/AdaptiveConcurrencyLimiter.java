@@ -0,0 +1,102 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+@Slf4j
+class AdaptiveConcurrencyLimiter {
+    private static final double RTT_SMOOTHING = 0.2;
+    private static final double BASELINE_DRIFT = 0.05;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongSupplier clock;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double rttTolerance;
+    private final int rttWindow;
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double smoothedRtt;
+    private long lastDecrease;
+    private long noLoadRtt = Long.MAX_VALUE;
+    private long windowMinRtt = Long.MAX_VALUE;
+    private int windowSamples;
+
+    AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, LongSupplier clock) {
+        this.clock = clock;
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.rttTolerance = properties.getRttTolerance();
+        this.rttWindow = properties.getRttWindow();
+        this.estimatedLimit = properties.getInitialLimit();
+        this.limit = properties.getInitialLimit();
+        this.lastDecrease = clock.getAsLong();
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void onComplete(long rttNanos, boolean dropped) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        long now = clock.getAsLong();
+        synchronized (this) {
+            if (!dropped) {
+                sampleRtt(rttNanos);
+            }
+            if (dropped || smoothedRtt > noLoadRtt * rttTolerance) {
+                if (now - lastDecrease >= smoothedRtt) {
+                    estimatedLimit = Math.max(minLimit, estimatedLimit * backoffRatio);
+                    lastDecrease = now;
+                }
+            } else if (inFlightBefore * 2 >= limit) {
+                estimatedLimit = Math.min(maxLimit, estimatedLimit + 1.0 / estimatedLimit);
+            }
+            int newLimit = (int) estimatedLimit;
+            if (newLimit != limit) {
+                log.debug("Лимит одновременных запросов к серверу: {} -> {}.", limit, newLimit);
+                limit = newLimit;
+            }
+        }
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void sampleRtt(long rttNanos) {
+        smoothedRtt = smoothedRtt == 0 ? rttNanos : smoothedRtt * (1 - RTT_SMOOTHING) + rttNanos * RTT_SMOOTHING;
+        windowMinRtt = Math.min(windowMinRtt, rttNanos);
+        noLoadRtt = Math.min(noLoadRtt, rttNanos);
+        if (++windowSamples >= rttWindow) {
+            // Базовая задержка лишь понемногу подтягивается к минимуму окна: если бы она сразу
+            // становилась равной ему, затянувшаяся перегрузка за одно окно стала бы новой нормой.
+            if (windowMinRtt > noLoadRtt) {
+                noLoadRtt += (long) ((windowMinRtt - noLoadRtt) * BASELINE_DRIFT);
+            }
+            windowMinRtt = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+    }
+}
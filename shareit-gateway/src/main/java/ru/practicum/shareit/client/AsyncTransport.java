@@ -0,0 +1,131 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@Qualifier(GatewayTransport.HTTP)
+@ConditionalOnProperty(prefix = "shareit-gateway.http-client", name = "mode", havingValue = "async")
+public class AsyncTransport implements GatewayTransport {
+    private static final String METRIC = "shareit.gateway.async.connections";
+
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final HttpClientProperties properties;
+    private final ObjectMapper objectMapper;
+    private final int maxConnections;
+    private final Semaphore connections;
+    private final Counter acquireTimeouts;
+
+    public AsyncTransport(HttpClientProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        // Клиент JDK сам не ограничивает число соединений: запросы к серверу ограничиваются так же, как пулом
+        // блокирующего режима, с тем же временем ожидания свободного места.
+        this.maxConnections = Math.min(properties.getMaxConnections(), properties.getMaxConnectionsPerRoute());
+        this.connections = new Semaphore(maxConnections);
+        Gauge.builder(METRIC + ".leased", connections, permits -> maxConnections - permits.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder(METRIC + ".pending", connections, Semaphore::getQueueLength)
+                .register(meterRegistry);
+        this.acquireTimeouts = Counter.builder(METRIC + ".acquire-timeouts")
+                .register(meterRegistry);
+        this.executor = Executors.newFixedThreadPool(properties.getAsyncThreads(),
+                new CustomizableThreadFactory("gateway-async-"));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout())
+                .executor(executor)
+                .build();
+        log.info("Шлюз работает в неблокирующем режиме, потоков обработки: {}, соединений: {}.",
+                properties.getAsyncThreads(), maxConnections);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(properties.getReadTimeout())
+                .method(method.name(), bodyPublisher(body));
+        headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+
+        if (!acquire()) {
+            acquireTimeouts.increment();
+            return CompletableFuture.failedFuture(new ResourceAccessException("Нет свободных соединений с сервером за "
+                    + properties.getPoolAcquireTimeout().toMillis() + " мс."));
+        }
+        CompletableFuture<HttpResponse<byte[]>> sent;
+        try {
+            sent = client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (RuntimeException e) {
+            connections.release();
+            throw e;
+        }
+        return sent.whenComplete((response, error) -> connections.release())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                        throw new CompletionException(new ResourceAccessException(
+                                "Ошибка обращения к серверу: " + cause.getMessage(),
+                                cause instanceof IOException ? (IOException) cause : new IOException(cause)));
+                    }
+                    HttpHeaders responseHeaders = new HttpHeaders();
+                    response.headers().map().forEach(responseHeaders::addAll);
+                    return ResponseEntity.status(response.statusCode())
+                            .headers(responseHeaders)
+                            .body(response.body());
+                });
+    }
+
+    private boolean acquire() {
+        try {
+            return connections.tryAcquire(properties.getPoolAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private HttpRequest.BodyPublisher bodyPublisher(@Nullable Object body) {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Не удалось сериализовать тело запроса.", e);
+        }
+    }
+}
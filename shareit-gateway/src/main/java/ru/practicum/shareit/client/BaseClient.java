@@ -1,95 +1,279 @@
 package ru.practicum.shareit.client;
 
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 import ru.practicum.shareit.constants.Request;
+import ru.practicum.shareit.exception.UserNotFoundException;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class BaseClient {
+    private static final String UNKNOWN_USER_MESSAGE = "Пользователь с запрашиваемым айди не зарегистрирован.";
+    private static final List<String> RELAYED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG,
+            HttpHeaders.CACHE_CONTROL, HttpHeaders.LAST_MODIFIED, HttpHeaders.LOCATION, HttpHeaders.RETRY_AFTER);
+
     protected final RestTemplate rest;
+    protected final UserIdCache userIds;
+    protected final ResponseCache responses;
+    private final GatewayTransport transport;
+    private final RequestCoalescer coalescer;
+    private final ValidatorCache validators;
 
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, GatewayTransport transport, RequestCoalescer coalescer,
+                      ValidatorCache validators, ResponseCache responses, UserIdCache userIds) {
         this.rest = rest;
+        this.transport = transport;
+        this.coalescer = coalescer;
+        this.validators = validators;
+        this.responses = responses;
+        this.userIds = userIds;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId, @Nullable String ifNoneMatch) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, null, null, ifNoneMatch, null);
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String,
+                                                            Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, null, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected CompletableFuture<ResponseEntity<Object>> get(URI uri, long userId) {
+        return sendRequest(HttpMethod.GET, uri, userId, null, null, null);
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String,
+                                                                 Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, null, null);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String,
+                                                                Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patchWithId(String path, long userId) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patchWithId(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String,
+                                                                  Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String,
+                                                               Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, null, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    protected CompletableFuture<ResponseEntity<Object>> getShared(String cacheKey, String path, @Nullable Long userId,
+                                                                  @Nullable Map<String, Object> parameters,
+                                                                  @Nullable String ifNoneMatch) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, ifNoneMatch, cacheKey);
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    protected void stream(HttpMethod method, String path, Long userId, MediaType contentType, InputStream body,
+                          HttpServletResponse response) throws IOException {
+        checkKnownUser(userId);
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
+            rest.execute(path, method, request -> {
+                request.getHeaders().setContentType(contentType);
+                if (userId != null) {
+                    request.getHeaders().set(Request.USER_ID, String.valueOf(userId));
+                }
+                StreamUtils.copy(body, request.getBody());
+            }, serverResponse -> relay(serverResponse, response));
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            rememberUser(userId, e.getStatusCode(), e.getResponseHeaders());
+            relayError(e, response);
+        }
+        validators.invalidateAfterWrite(rest.getUriTemplateHandler().expand(path).getPath());
+    }
+
+    protected void streamGet(String path, @Nullable Long userId, MediaType accept, HttpHeaders headers,
+                             HttpServletResponse response) throws IOException {
+        checkKnownUser(userId);
+        try {
+            rest.execute(path, HttpMethod.GET, request -> {
+                request.getHeaders().addAll(headers);
+                request.getHeaders().setAccept(List.of(accept));
+                if (userId != null) {
+                    request.getHeaders().set(Request.USER_ID, String.valueOf(userId));
+                }
+            }, serverResponse -> relay(serverResponse, response));
+        } catch (HttpStatusCodeException e) {
+            rememberUser(userId, e.getStatusCode(), e.getResponseHeaders());
+            relayError(e, response);
+        }
+    }
+
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path,
+                                                                             Long userId,
+                                                                             @Nullable Map<String, Object> parameters,
+                                                                             @Nullable T body,
+                                                                             @Nullable String ifNoneMatch,
+                                                                             @Nullable String cacheKey) {
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+        return sendRequest(method, uri, userId, body, ifNoneMatch, cacheKey);
+    }
+
+    private <T> CompletableFuture<ResponseEntity<Object>> sendRequest(HttpMethod method, URI uri, Long userId,
+                                                                      @Nullable T body,
+                                                                      @Nullable String ifNoneMatch,
+                                                                      @Nullable String cacheKey) {
+        checkKnownUser(userId);
+        String validatorKey = method == HttpMethod.GET ? userId + " " + uri : null;
+        if (validatorKey != null && ifNoneMatch != null) {
+            String etag = validators.findMatching(validatorKey, ifNoneMatch);
+            if (etag != null) {
+                return CompletableFuture.completedFuture(
+                        ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build());
+            }
+        }
+
+        if (cacheKey != null && (userId == null || userIds.isKnown(userId))) {
+            ResponseEntity<Object> cached = responses.find(cacheKey, userId, ifNoneMatch);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+
+        HttpHeaders headers = defaultHeaders(userId);
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+
+        CompletableFuture<ResponseEntity<byte[]>> exchange;
+        if (method == HttpMethod.GET) {
+            boolean sharedFlight = cacheKey != null && (userId == null || userIds.isKnown(userId));
+            String flightKey = (sharedFlight ? cacheKey : userId + " " + uri) + " " + ifNoneMatch;
+            exchange = coalescer.execute(flightKey, route(uri), () -> transport.exchange(method, uri, headers, body),
+                    shared -> !sharedFlight || isSharedView(shared, userId));
+        } else {
+            exchange = transport.exchange(method, uri, headers, body);
+        }
+
+        return exchange.thenApply(shareitServerResponse -> {
+            HttpStatus status = shareitServerResponse.getStatusCode();
+            rememberUser(userId, status, shareitServerResponse.getHeaders());
+            if (validatorKey != null) {
+                String etag = shareitServerResponse.getHeaders().getETag();
+                if (etag != null && !status.isError()) {
+                    validators.put(validatorKey, uri.getPath(), etag);
+                }
+            } else if (method != HttpMethod.GET && status.is2xxSuccessful()) {
+                validators.invalidateAfterWrite(uri.getPath());
+            }
+            ResponseEntity<Object> response = passThrough(status, shareitServerResponse.getHeaders(),
+                    shareitServerResponse.getBody());
+            if (cacheKey != null) {
+                responses.store(cacheKey, shareitServerResponse.getHeaders(), response);
+            }
+            return response;
+        });
+    }
+
+    private static boolean isSharedView(ResponseEntity<byte[]> response, @Nullable Long userId) {
+        HttpHeaders headers = response.getHeaders();
+        String cacheControl = headers.getCacheControl();
+        return !headers.containsKey(Request.UNKNOWN_USER)
+                && (cacheControl == null || !cacheControl.contains("private"))
+                && (userId == null || !String.valueOf(userId).equals(headers.getFirst(Request.ITEM_OWNER)));
+    }
+
+    private static String route(URI uri) {
+        return uri.getPath().replaceAll("/\\d+", "/{id}");
+    }
+
+    protected void checkKnownUser(@Nullable Long userId) {
+        if (userId != null && userIds.isKnownMissing(userId)) {
+            throw new UserNotFoundException(UNKNOWN_USER_MESSAGE);
+        }
+    }
+
+    protected void rememberUser(@Nullable Long userId, HttpStatus status, @Nullable HttpHeaders headers) {
+        if (userId == null) {
+            return;
+        }
+        if (status.is2xxSuccessful()) {
+            userIds.markKnown(userId);
+        } else if (status == HttpStatus.NOT_FOUND && headers != null && headers.containsKey(Request.UNKNOWN_USER)) {
+            userIds.markMissing(userId);
+        }
+    }
+
+    private static Void relay(ClientHttpResponse serverResponse, HttpServletResponse response) throws IOException {
+        response.setStatus(serverResponse.getRawStatusCode());
+        MediaType responseType = serverResponse.getHeaders().getContentType();
+        if (responseType != null) {
+            response.setContentType(responseType.toString());
+        }
+        relay(serverResponse.getBody(), response.getOutputStream());
+        return null;
+    }
+
+    private static void relayError(HttpStatusCodeException e, HttpServletResponse response) throws IOException {
+        response.setStatus(e.getRawStatusCode());
+        if (e.getResponseHeaders() != null && e.getResponseHeaders().getContentType() != null) {
+            response.setContentType(e.getResponseHeaders().getContentType().toString());
+        }
+        response.getOutputStream().write(e.getResponseBodyAsByteArray());
+    }
+
+    private static void relay(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            out.flush();
         }
-        return prepareGatewayResponse(shareitServerResponse);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -102,17 +286,20 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private static ResponseEntity<Object> passThrough(HttpStatus status, @Nullable HttpHeaders serverHeaders,
+                                                      @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status);
+        if (serverHeaders != null) {
+            for (String name : RELAYED_HEADERS) {
+                List<String> values = serverHeaders.get(name);
+                if (values != null) {
+                    responseBuilder.header(name, values.toArray(String[]::new));
+                }
+            }
         }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (body == null || body.length == 0) {
+            return responseBuilder.build();
         }
-
-        return responseBuilder.build();
+        return responseBuilder.body(body);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@Qualifier(GatewayTransport.HTTP)
+@ConditionalOnProperty(prefix = "shareit-gateway.http-client", name = "mode", havingValue = "blocking",
+        matchIfMissing = true)
+public class BlockingTransport implements GatewayTransport {
+    private final RestTemplate rest;
+
+    public BlockingTransport(RestTemplateBuilder builder, ClientHttpRequestFactory requestFactory) {
+        this.rest = builder
+                .requestFactory(() -> requestFactory)
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        try {
+            return CompletableFuture.completedFuture(
+                    rest.exchange(new RequestEntity<>(body, headers, method, uri), byte[].class));
+        } catch (HttpStatusCodeException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(e.getRawStatusCode())
+                    .headers(e.getResponseHeaders())
+                    .body(e.getResponseBodyAsByteArray()));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class CircuitBreaker {
+    enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final String route;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private int probes;
+    private int probeSuccesses;
+    private long openedAt;
+
+    CircuitBreaker(String route, ResilienceProperties.Route properties) {
+        this.route = route;
+        this.failureThreshold = properties.getFailureThreshold();
+        this.openNanos = properties.getOpenDuration().toNanos();
+        this.halfOpenCalls = properties.getHalfOpenCalls();
+    }
+
+    synchronized long tryAcquire(long now) {
+        if (state == State.OPEN) {
+            long remaining = openNanos - (now - openedAt);
+            if (remaining > 0) {
+                return remaining;
+            }
+            state = State.HALF_OPEN;
+            probes = 0;
+            probeSuccesses = 0;
+            log.info("Маршрут {}: пробные запросы к серверу.", route);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probes >= halfOpenCalls) {
+                return openNanos;
+            }
+            probes++;
+        }
+        return 0;
+    }
+
+    synchronized void onResult(boolean success, long now) {
+        if (state == State.HALF_OPEN) {
+            if (!success) {
+                open(now);
+            } else if (++probeSuccesses >= halfOpenCalls) {
+                state = State.CLOSED;
+                failures = 0;
+                log.info("Маршрут {}: сервер снова отвечает, размыкатель закрыт.", route);
+            }
+        } else if (state == State.CLOSED) {
+            if (success) {
+                failures = 0;
+            } else if (++failures >= failureThreshold) {
+                open(now);
+            }
+        }
+    }
+
+    synchronized void release() {
+        if (state == State.HALF_OPEN && probes > probeSuccesses) {
+            probes--;
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openedAt = now;
+        log.warn("Маршрут {}: размыкатель открыт на {} мс.", route, openNanos / 1_000_000);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.concurrency-limit")
+public class ConcurrencyLimitProperties {
+    private int initialLimit = 20;
+
+    private int minLimit = 5;
+
+    private int maxLimit = 200;
+
+    private double backoffRatio = 0.9;
+
+    private double rttTolerance = 2.0;
+
+    private int rttWindow = 500;
+}
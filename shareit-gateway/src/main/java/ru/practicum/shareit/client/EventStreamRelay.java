@@ -0,0 +1,174 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Передаёт поток событий сервера клиенту без удержания потоков: соединение с сервером читается неблокирующим
+ * клиентом, а ответ клиенту пишется через асинхронный режим сервлета. Число одновременных подписок ограничено
+ * отдельно от пулов обычных запросов и выгрузок.
+ */
+@Slf4j
+@Component
+public class EventStreamRelay {
+    private static final String METRIC = "shareit.gateway.events";
+
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final HttpClientProperties properties;
+    private final Semaphore subscriptions;
+    private final Counter rejections;
+
+    public EventStreamRelay(HttpClientProperties properties, MeterRegistry meterRegistry) {
+        HttpClientProperties.Events events = properties.getEvents();
+        this.properties = properties;
+        this.subscriptions = new Semaphore(events.getMaxSubscriptions());
+        this.executor = Executors.newFixedThreadPool(events.getThreads(),
+                new CustomizableThreadFactory("gateway-events-"));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout())
+                .executor(executor)
+                .build();
+        Gauge.builder(METRIC + ".subscriptions", subscriptions,
+                        permits -> events.getMaxSubscriptions() - permits.availablePermits())
+                .register(meterRegistry);
+        this.rejections = Counter.builder(METRIC + ".rejections")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Открывает поток событий сервера. Ответ с заголовками сервера завершается, как только они получены;
+     * тело передаётся клиенту по мере поступления.
+     */
+    public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> open(URI uri, HttpHeaders headers) {
+        if (!subscriptions.tryAcquire()) {
+            rejections.increment();
+            throw new ServiceUnavailableException("Превышено число одновременных подписок на события.", 5);
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                subscriptions.release();
+            }
+        };
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(properties.getReadTimeout())
+                .GET();
+        headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofPublisher())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        release.run();
+                        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                        throw new CompletionException(new ResourceAccessException(
+                                "Ошибка обращения к серверу: " + cause.getMessage(),
+                                cause instanceof IOException ? (IOException) cause : new IOException(cause)));
+                    }
+                    ResponseBodyEmitter emitter = new ResponseBodyEmitter(
+                            properties.getEvents().getTimeout().toMillis());
+                    EmitterSubscriber subscriber = new EmitterSubscriber(emitter, release);
+                    emitter.onCompletion(subscriber::cancel);
+                    emitter.onTimeout(subscriber::cancel);
+                    emitter.onError(e -> subscriber.cancel());
+                    response.body().subscribe(subscriber);
+
+                    HttpHeaders responseHeaders = new HttpHeaders();
+                    response.headers().map().forEach(responseHeaders::addAll);
+                    return ResponseEntity.status(response.statusCode())
+                            .headers(responseHeaders)
+                            .body(emitter);
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static class EmitterSubscriber implements Flow.Subscriber<List<ByteBuffer>> {
+        private final ResponseBodyEmitter emitter;
+        private final Runnable release;
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+
+        EmitterSubscriber(ResponseBodyEmitter emitter, Runnable release) {
+            this.emitter = emitter;
+            this.release = release;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (cancelled) {
+                subscription.cancel();
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            try {
+                for (ByteBuffer buffer : buffers) {
+                    byte[] chunk = new byte[buffer.remaining()];
+                    buffer.get(chunk);
+                    emitter.send(chunk);
+                }
+                subscription.request(1);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Подписчик событий отключился: {}", e.getMessage());
+                cancel();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            log.debug("Поток событий сервера прерван: {}", throwable.getMessage());
+            release.run();
+            emitter.complete();
+        }
+
+        @Override
+        public void onComplete() {
+            release.run();
+            emitter.complete();
+        }
+
+        void cancel() {
+            cancelled = true;
+            release.run();
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+}
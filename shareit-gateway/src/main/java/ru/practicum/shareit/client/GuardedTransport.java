@@ -0,0 +1,163 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Primary
+@Component
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class GuardedTransport implements GatewayTransport {
+    private static final String METRIC = "shareit.gateway.route";
+
+    private final GatewayTransport upstream;
+    private final ResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Guard> guards = new ConcurrentHashMap<>();
+
+    public GuardedTransport(@Qualifier(GatewayTransport.UPSTREAM) GatewayTransport upstream,
+                            ResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.upstream = upstream;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        Guard guard = guards.computeIfAbsent(route(uri), this::createGuard);
+        if (!guard.bulkhead.tryAcquire()) {
+            guard.bulkheadRejections.increment();
+            throw new ServiceUnavailableException(String.format(
+                    "Слишком много одновременных запросов к маршруту %s.", guard.route), 1);
+        }
+        long now = System.nanoTime();
+        long wait = guard.breaker.tryAcquire(now);
+        if (wait > 0) {
+            guard.bulkhead.release();
+            guard.circuitRejections.increment();
+            throw new ServiceUnavailableException(String.format(
+                    "Маршрут %s временно отключён из-за ошибок сервера.", guard.route),
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait)));
+        }
+
+        CompletableFuture<ResponseEntity<byte[]>> response;
+        try {
+            response = upstream.exchange(method, uri, headers, body);
+        } catch (RuntimeException e) {
+            if (isFailure(e)) {
+                guard.complete(false, now);
+            } else {
+                guard.cancel();
+            }
+            throw e;
+        }
+        return response.whenComplete((result, error) -> {
+            if (error == null) {
+                guard.complete(!isFailure(result.getStatusCodeValue()), now);
+            } else if (isFailure(error)) {
+                guard.complete(false, now);
+            } else {
+                guard.cancel();
+            }
+        });
+    }
+
+    /**
+     * Сбоем сервера считаются только ответы шлюзового уровня, таймауты и ошибки ввода-вывода:
+     * остальные ответы 5xx означают, что сервер жив и отвечает.
+     */
+    private static boolean isFailure(int status) {
+        return status == HttpStatus.BAD_GATEWAY.value() || status == HttpStatus.SERVICE_UNAVAILABLE.value()
+                || status == HttpStatus.GATEWAY_TIMEOUT.value();
+    }
+
+    private static boolean isFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof ResourceAccessException || cause instanceof IOException
+                || cause instanceof TimeoutException;
+    }
+
+    private Guard createGuard(String route) {
+        Guard guard = new Guard(route, properties.forRoute(route), rejections(route, "circuit_open"),
+                rejections(route, "bulkhead_full"));
+        Gauge.builder(METRIC + ".circuit.state", guard.breaker, breaker -> breaker.getState().ordinal())
+                .description("0 - закрыт, 1 - пробные запросы, 2 - открыт")
+                .tag("route", route)
+                .register(meterRegistry);
+        Gauge.builder(METRIC + ".bulkhead.available", guard.bulkhead, Semaphore::availablePermits)
+                .tag("route", route)
+                .register(meterRegistry);
+        return guard;
+    }
+
+    private Counter rejections(String route, String reason) {
+        return Counter.builder(METRIC + ".rejections")
+                .tag("route", route)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static String route(URI uri) {
+        String path = uri.getPath();
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = path.indexOf('/', start);
+        return end < 0 ? path.substring(start) : path.substring(start, end);
+    }
+
+    private static class Guard {
+        private final String route;
+
+        private final Semaphore bulkhead;
+
+        private final CircuitBreaker breaker;
+
+        private final long slowCallNanos;
+
+        private final Counter circuitRejections;
+
+        private final Counter bulkheadRejections;
+
+        Guard(String route, ResilienceProperties.Route properties, Counter circuitRejections,
+              Counter bulkheadRejections) {
+            this.route = route;
+            this.circuitRejections = circuitRejections;
+            this.bulkheadRejections = bulkheadRejections;
+            this.bulkhead = new Semaphore(properties.getMaxConcurrentCalls());
+            this.breaker = new CircuitBreaker(route, properties);
+            this.slowCallNanos = properties.getSlowCallDuration().toNanos();
+        }
+
+        void cancel() {
+            bulkhead.release();
+            breaker.release();
+        }
+
+        void complete(boolean success, long start) {
+            bulkhead.release();
+            long now = System.nanoTime();
+            breaker.onResult(success && now - start < slowCallNanos, now);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Короткие запросы к серверу и долгие потоки (выгрузка, импорт) идут через разные пулы соединений,
+ * чтобы долгие передачи не занимали соединения обычных запросов. Подписки на события идут мимо этих пулов,
+ * через {@link EventStreamRelay}.
+ */
+@Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientConfig {
+    public static final String STREAMING = "streaming";
+
+    private static final String POOL_NAME = "shareit-server";
+    private static final String STREAMING_POOL_NAME = "shareit-server-streaming";
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public PoolingHttpClientConnectionManager connectionManager(HttpClientProperties properties) {
+        return newConnectionManager(properties, properties.getMaxConnections(),
+                properties.getMaxConnectionsPerRoute());
+    }
+
+    @Bean(destroyMethod = "close")
+    @Qualifier(STREAMING)
+    public PoolingHttpClientConnectionManager streamingConnectionManager(HttpClientProperties properties) {
+        HttpClientProperties.Streaming streaming = properties.getStreaming();
+        return newConnectionManager(properties, streaming.getMaxConnections(), streaming.getMaxConnections());
+    }
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager,
+                                          HttpClientProperties properties) {
+        return newHttpClient(connectionManager, properties);
+    }
+
+    @Bean(destroyMethod = "close")
+    @Qualifier(STREAMING)
+    public CloseableHttpClient streamingHttpClient(@Qualifier(STREAMING) PoolingHttpClientConnectionManager
+                                                           connectionManager, HttpClientProperties properties) {
+        return newHttpClient(connectionManager, properties);
+    }
+
+    @Bean
+    @Primary
+    public ClientHttpRequestFactory clientHttpRequestFactory(CloseableHttpClient httpClient) {
+        return newRequestFactory(httpClient);
+    }
+
+    @Bean
+    @Qualifier(STREAMING)
+    public ClientHttpRequestFactory streamingRequestFactory(@Qualifier(STREAMING) CloseableHttpClient httpClient) {
+        return newRequestFactory(httpClient);
+    }
+
+    @Bean
+    public MeterBinder connectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME);
+    }
+
+    @Bean
+    public MeterBinder streamingConnectionPoolMetrics(@Qualifier(STREAMING) PoolingHttpClientConnectionManager
+                                                              connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, STREAMING_POOL_NAME);
+    }
+
+    private static PoolingHttpClientConnectionManager newConnectionManager(HttpClientProperties properties,
+                                                                           int maxTotal, int maxPerRoute) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                properties.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+        return connectionManager;
+    }
+
+    private static CloseableHttpClient newHttpClient(PoolingHttpClientConnectionManager connectionManager,
+                                                     HttpClientProperties properties) {
+        long keepAlive = properties.getKeepAlive().toMillis();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                        .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                        .setConnectionRequestTimeout((int) properties.getPoolAcquireTimeout().toMillis())
+                        .build())
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive) : keepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getIdleEviction().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    private static ClientHttpRequestFactory newRequestFactory(CloseableHttpClient httpClient) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setBufferRequestBody(false);
+        return requestFactory;
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.http-client")
+public class HttpClientProperties {
+    private int maxConnections = 200;
+
+    private int maxConnectionsPerRoute = 200;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    private Duration poolAcquireTimeout = Duration.ofSeconds(1);
+
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    private Duration idleEviction = Duration.ofSeconds(30);
+
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    private int asyncThreads = 4;
+
+    private Streaming streaming = new Streaming();
+
+    private Events events = new Events();
+
+    @Getter
+    @Setter
+    public static class Streaming {
+        private int maxConnections = 50;
+    }
+
+    @Getter
+    @Setter
+    public static class Events {
+        private int maxSubscriptions = 1000;
+
+        private int threads = 2;
+
+        private Duration timeout = Duration.ofMinutes(30);
+    }
+}
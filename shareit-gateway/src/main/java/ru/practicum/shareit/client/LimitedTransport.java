@@ -0,0 +1,64 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@Qualifier(GatewayTransport.UPSTREAM)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class LimitedTransport implements GatewayTransport {
+    private static final String METRIC = "shareit.gateway.concurrency";
+
+    private final GatewayTransport http;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Counter rejections;
+
+    public LimitedTransport(@Qualifier(GatewayTransport.HTTP) GatewayTransport http,
+                            ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.http = http;
+        this.limiter = new AdaptiveConcurrencyLimiter(properties);
+        Gauge.builder(METRIC + ".limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder(METRIC + ".in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        this.rejections = Counter.builder(METRIC + ".rejections")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        if (!limiter.tryAcquire()) {
+            rejections.increment();
+            throw new ServiceUnavailableException("Сервер перегружен, запрос отклонён.", 1);
+        }
+        long start = System.nanoTime();
+        CompletableFuture<ResponseEntity<byte[]>> response;
+        try {
+            response = http.exchange(method, uri, headers, body);
+        } catch (RuntimeException e) {
+            limiter.onComplete(System.nanoTime() - start, true);
+            throw e;
+        }
+        return response.whenComplete((result, error) -> limiter.onComplete(System.nanoTime() - start,
+                error != null || isOverloaded(result.getStatusCodeValue())));
+    }
+
+    private static boolean isOverloaded(int status) {
+        return status == HttpStatus.SERVICE_UNAVAILABLE.value() || status == HttpStatus.GATEWAY_TIMEOUT.value()
+                || status == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class RequestCoalescer {
+    private static final String METRIC = "shareit.gateway.coalescing";
+
+    private final Map<String, CompletableFuture<ResponseEntity<byte[]>>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ExecutorService fallbackExecutor;
+    private final MeterRegistry meterRegistry;
+    private final long maxWaitMillis;
+
+    public RequestCoalescer(MeterRegistry meterRegistry,
+                            @Value("${shareit-gateway.coalescing.max-wait:5s}") Duration maxWait,
+                            @Value("${shareit-gateway.coalescing.fallback-threads:8}") int fallbackThreads,
+                            @Value("${shareit-gateway.coalescing.fallback-queue:64}") int fallbackQueue) {
+        this.meterRegistry = meterRegistry;
+        this.maxWaitMillis = maxWait.toMillis();
+        this.fallbackExecutor = new ThreadPoolExecutor(fallbackThreads, fallbackThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fallbackQueue), new CustomizableThreadFactory("gateway-coalescing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        meterRegistry.gaugeMapSize(METRIC + ".in-flight", Tags.empty(), inFlight);
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> execute(String key, String route,
+                                                             Supplier<CompletableFuture<ResponseEntity<byte[]>>> call,
+                                                             Predicate<ResponseEntity<byte[]>> acceptsShared) {
+        CompletableFuture<ResponseEntity<byte[]>> leader = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> shared = inFlight.putIfAbsent(key, leader);
+        if (shared != null) {
+            count(route, "joined");
+            return join(shared, route, call, acceptsShared);
+        }
+
+        count(route, "leader");
+        try {
+            call.get().whenComplete((response, error) -> {
+                inFlight.remove(key, leader);
+                if (error != null) {
+                    leader.completeExceptionally(error);
+                } else {
+                    leader.complete(response);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, leader);
+            leader.completeExceptionally(e);
+            throw e;
+        }
+        return leader;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fallbackExecutor.shutdown();
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> join(CompletableFuture<ResponseEntity<byte[]>> shared,
+                                                           String route,
+                                                           Supplier<CompletableFuture<ResponseEntity<byte[]>>> call,
+                                                           Predicate<ResponseEntity<byte[]>> acceptsShared) {
+        return shared.copy()
+                .orTimeout(maxWaitMillis, TimeUnit.MILLISECONDS)
+                .handle((response, error) -> {
+                    if (error == null) {
+                        if (acceptsShared.test(response)) {
+                            return CompletableFuture.completedFuture(response);
+                        }
+                        count(route, "rejected");
+                        return fallback(route, call);
+                    }
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause instanceof TimeoutException) {
+                        count(route, "timeout");
+                        log.warn("Ожидание общего запроса {} превысило {} мс.", route, maxWaitMillis);
+                        return fallback(route, call);
+                    }
+                    return CompletableFuture.<ResponseEntity<byte[]>>failedFuture(error);
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> fallback(String route,
+                                                               Supplier<CompletableFuture<ResponseEntity<byte[]>>> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, fallbackExecutor)
+                    .thenCompose(Function.identity());
+        } catch (RejectedExecutionException e) {
+            count(route, "fallback_rejected");
+            return CompletableFuture.failedFuture(new ServiceUnavailableException(String.format(
+                    "Очередь повторных запросов к маршруту %s переполнена.", route), 1));
+        }
+    }
+
+    private void count(String route, String outcome) {
+        counters.computeIfAbsent(route + " " + outcome, name -> Counter.builder(METRIC)
+                        .tag("route", route)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                .increment();
+    }
+}
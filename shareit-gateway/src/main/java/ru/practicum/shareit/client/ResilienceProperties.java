@@ -0,0 +1,36 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.resilience")
+public class ResilienceProperties {
+    private Route defaults = new Route();
+
+    private Map<String, Route> routes = new HashMap<>();
+
+    public Route forRoute(String route) {
+        return routes.getOrDefault(route, defaults);
+    }
+
+    @Getter
+    @Setter
+    public static class Route {
+        private int maxConcurrentCalls = 64;
+
+        private int failureThreshold = 5;
+
+        private Duration slowCallDuration = Duration.ofSeconds(5);
+
+        private Duration openDuration = Duration.ofSeconds(10);
+
+        private int halfOpenCalls = 3;
+    }
+}
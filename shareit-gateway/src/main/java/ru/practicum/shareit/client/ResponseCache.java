@@ -0,0 +1,119 @@
+package ru.practicum.shareit.client;
+
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.constants.Request;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+@Component
+public class ResponseCache {
+    private static final String MAX_AGE = "max-age=";
+
+    private final Map<String, Entry> entries;
+    private final long maxTtlNanos;
+
+    public ResponseCache(@Value("${shareit-gateway.response-cache.max-size:10000}") int maxSize,
+                         @Value("${shareit-gateway.response-cache.ttl:30s}") Duration maxTtl) {
+        this.maxTtlNanos = maxTtl.toNanos();
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    @Nullable
+    public ResponseEntity<Object> find(String key, @Nullable Long userId, @Nullable String ifNoneMatch) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() >= entry.expiresAt) {
+            entries.remove(key);
+            return null;
+        }
+        if (userId != null && userId.equals(entry.ownerId)) {
+            return null;
+        }
+        String etag = entry.response.getHeaders().getETag();
+        if (etag != null && ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                if (etag.equals(tag.trim())) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                }
+            }
+        }
+        return entry.response;
+    }
+
+    public void store(String key, HttpHeaders serverHeaders, ResponseEntity<Object> response) {
+        if (response.getStatusCode() != HttpStatus.OK) {
+            return;
+        }
+        long ttlNanos = sharedTtlNanos(serverHeaders.getCacheControl());
+        if (ttlNanos <= 0) {
+            entries.remove(key);
+            return;
+        }
+        String owner = serverHeaders.getFirst(Request.ITEM_OWNER);
+        entries.put(key, new Entry(response, owner != null ? Long.valueOf(owner) : null,
+                System.nanoTime() + Math.min(ttlNanos, maxTtlNanos)));
+    }
+
+    public void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    public void invalidatePrefix(String prefix) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private static long sharedTtlNanos(@Nullable String cacheControl) {
+        if (cacheControl == null) {
+            return 0;
+        }
+        long maxAgeSeconds = 0;
+        boolean shared = false;
+        for (String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+            directive = directive.trim();
+            if (directive.equals("no-store") || directive.equals("no-cache") || directive.equals("private")) {
+                return 0;
+            } else if (directive.equals("public")) {
+                shared = true;
+            } else if (directive.startsWith(MAX_AGE)) {
+                try {
+                    maxAgeSeconds = Long.parseLong(directive.substring(MAX_AGE.length()));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return shared ? Duration.ofSeconds(maxAgeSeconds).toNanos() : 0;
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final ResponseEntity<Object> response;
+
+        private final Long ownerId;
+
+        private final long expiresAt;
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.client;
+
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class UserIdCache {
+    private final Map<Long, Entry> entries;
+    private final long positiveTtlNanos;
+    private final long negativeTtlNanos;
+
+    public UserIdCache(@Value("${shareit-gateway.user-cache.max-size:100000}") int maxSize,
+                       @Value("${shareit-gateway.user-cache.positive-ttl:10m}") Duration positiveTtl,
+                       @Value("${shareit-gateway.user-cache.negative-ttl:5s}") Duration negativeTtl) {
+        this.positiveTtlNanos = positiveTtl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    public boolean isKnownMissing(long userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null || entry.known) {
+            return false;
+        }
+        if (System.nanoTime() >= entry.expiresAt) {
+            entries.remove(userId);
+            return false;
+        }
+        return true;
+    }
+
+    public boolean isKnown(long userId) {
+        Entry entry = entries.get(userId);
+        return entry != null && entry.known && System.nanoTime() < entry.expiresAt;
+    }
+
+    public void markKnown(long userId) {
+        entries.put(userId, new Entry(true, System.nanoTime() + positiveTtlNanos));
+    }
+
+    public void markMissing(long userId) {
+        entries.put(userId, new Entry(false, System.nanoTime() + negativeTtlNanos));
+    }
+
+    public void invalidateMissing() {
+        synchronized (entries) {
+            entries.values().removeIf(entry -> !entry.known);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final boolean known;
+
+        private final long expiresAt;
+    }
+}
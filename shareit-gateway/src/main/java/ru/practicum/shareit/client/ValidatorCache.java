@@ -0,0 +1,108 @@
+package ru.practicum.shareit.client;
+
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class ValidatorCache {
+    private final Map<String, Validator> validators;
+    private final long ttlNanos;
+
+    public ValidatorCache(@Value("${shareit-gateway.validator-cache.max-size:10000}") int maxSize,
+                          @Value("${shareit-gateway.validator-cache.ttl:30s}") Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+        this.validators = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Validator> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    @Nullable
+    public String findMatching(String key, String ifNoneMatch) {
+        Validator validator = validators.get(key);
+        if (validator == null) {
+            return null;
+        }
+        if (System.nanoTime() - validator.storedAt >= ttlNanos) {
+            validators.remove(key);
+            return null;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            if (validator.etag.equals(tag.trim())) {
+                return validator.etag;
+            }
+        }
+        return null;
+    }
+
+    public void put(String key, String path, String etag) {
+        validators.put(key, new Validator(etag, path, System.nanoTime()));
+    }
+
+    /**
+     * Сбрасывает валидаторы представлений, которые могла изменить успешная запись по пути {@code path}.
+     * Изменение пользователя видно в бронированиях, запросах и комментариях, поэтому сбрасывается всё.
+     */
+    public void invalidateAfterWrite(String path) {
+        String[] segments = path.split("/");
+        String resource = segments.length > 1 ? segments[1] : "";
+        String id = segments.length > 2 && segments[2].chars().allMatch(Character::isDigit) ? segments[2] : null;
+        boolean comment = segments.length > 3 && "comment".equals(segments[3]);
+        switch (resource) {
+            case "items":
+                if (id == null) {
+                    invalidate(List.of("/requests"));
+                } else if (comment) {
+                    invalidate(List.of("/items/" + id));
+                } else {
+                    invalidate(List.of("/items/" + id, "/requests", "/bookings"));
+                }
+                break;
+            case "bookings":
+                invalidate(id == null ? List.of("/items") : List.of("/items", "/bookings/" + id));
+                break;
+            case "requests":
+                if (id != null) {
+                    invalidate(List.of("/requests/" + id));
+                }
+                break;
+            case "users":
+                if (id != null) {
+                    invalidateAll();
+                }
+                break;
+            default:
+                invalidateAll();
+        }
+    }
+
+    public void invalidateAll() {
+        validators.clear();
+    }
+
+    private void invalidate(List<String> prefixes) {
+        synchronized (validators) {
+            validators.values().removeIf(validator -> prefixes.stream().anyMatch(prefix ->
+                    validator.path.equals(prefix) || validator.path.startsWith(prefix + "/")));
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Validator {
+        private final String etag;
+
+        private final String path;
+
+        private final long storedAt;
+    }
+}
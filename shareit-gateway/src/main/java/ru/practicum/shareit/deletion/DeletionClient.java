@@ -0,0 +1,47 @@
+package ru.practicum.shareit.deletion;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayTransport;
+import ru.practicum.shareit.client.HttpClientConfig;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.UserIdCache;
+import ru.practicum.shareit.client.ValidatorCache;
+
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class DeletionClient extends BaseClient {
+    private static final String API_PREFIX = "/deletions";
+
+    @Autowired
+    public DeletionClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                          @Qualifier(HttpClientConfig.STREAMING) ClientHttpRequestFactory requestFactory,
+                          GatewayTransport transport,
+                          RequestCoalescer coalescer, ValidatorCache validators,
+                          ResponseCache responses, UserIdCache userIds) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                transport,
+                coalescer,
+                validators,
+                responses,
+                userIds
+        );
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> findTask(long taskId) {
+        return get("/" + taskId);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.deletion;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping(path = "/deletions")
+@RequiredArgsConstructor
+public class DeletionController {
+    private final DeletionClient deletionClient;
+
+    @GetMapping("/{taskId}")
+    public CompletableFuture<ResponseEntity<Object>> findTask(@PathVariable long taskId) {
+        return deletionClient.findTask(taskId);
+    }
+}
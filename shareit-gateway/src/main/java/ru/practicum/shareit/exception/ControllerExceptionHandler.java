@@ -1,11 +1,13 @@
 package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.ResourceAccessException;
 
 import javax.validation.ConstraintViolationException;
 import java.util.HashMap;
@@ -49,6 +51,16 @@ public class ControllerExceptionHandler {
         return ResponseEntity.status(400).body(errors);
     }
 
+    @ExceptionHandler(UserNotFoundException.class)
+    public ResponseEntity<?> userNotFoundException(UserNotFoundException e) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("Объект не найден", e.getMessage());
+
+        log.error(e.getStackTrace()[0].getMethodName() + ": " + e.getMessage());
+
+        return ResponseEntity.status(404).body(errors);
+    }
+
     @ExceptionHandler(NotValidParameterException.class)
     public ResponseEntity<?> notValidIdException(NotValidParameterException e) {
         Map<String, String> errors = new HashMap<>();
@@ -58,4 +70,38 @@ public class ControllerExceptionHandler {
 
         return ResponseEntity.status(400).body(errors);
     }
+
+    @ExceptionHandler(ResourceAccessException.class)
+    public ResponseEntity<?> resourceAccessException(ResourceAccessException e) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("Сервер недоступен", "Не удалось получить ответ от сервера.");
+
+        log.error("Ошибка обращения к серверу: " + e.getMessage());
+
+        return ResponseEntity.status(503).body(errors);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<?> serviceUnavailableException(ServiceUnavailableException e) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("Сервер недоступен", e.getMessage());
+
+        log.warn("Запрос отклонён без обращения к серверу: " + e.getMessage());
+
+        return ResponseEntity.status(503)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(errors);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<?> tooManyRequestsException(TooManyRequestsException e) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("Слишком много запросов", e.getMessage());
+
+        log.warn("Превышен лимит запросов: " + e.getMessage());
+
+        return ResponseEntity.status(429)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(errors);
+    }
 }
@@ -1,45 +1,85 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayTransport;
+import ru.practicum.shareit.client.HttpClientConfig;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.UserIdCache;
+import ru.practicum.shareit.client.ValidatorCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final String ITEM_KEY = "viewer " + API_PREFIX + "/";
+    private static final String SEARCH_KEY = "viewer " + API_PREFIX + "/search?";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      @Qualifier(HttpClientConfig.STREAMING) ClientHttpRequestFactory requestFactory,
+                      GatewayTransport transport,
+                      RequestCoalescer coalescer, ValidatorCache validators,
+                      ResponseCache responses, UserIdCache userIds) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                transport,
+                coalescer,
+                validators,
+                responses,
+                userIds
         );
     }
 
-    public ResponseEntity<Object> createItem(Long userId, ItemDto dto) {
-        return post("", userId, dto);
+    public CompletableFuture<ResponseEntity<Object>> createItem(Long userId, ItemDto dto) {
+        return post("", userId, dto).thenApply(response -> {
+            if (response.getStatusCode().is2xxSuccessful()) {
+                responses.invalidatePrefix(SEARCH_KEY);
+            }
+            return response;
+        });
     }
 
-    public ResponseEntity<Object> updateItem(Long userId, ItemDto dto, Long itemId) {
-        return patch("/" + itemId, userId, dto);
+    public void importItems(Long userId, MediaType format, InputStream body, HttpServletResponse response)
+            throws IOException {
+        try {
+            stream(HttpMethod.POST, "/import", userId, format, body, response);
+        } finally {
+            // Импорт применяется частями, поэтому даже прерванная загрузка могла добавить вещи в поиск
+            responses.invalidatePrefix(SEARCH_KEY);
+        }
     }
 
-    public ResponseEntity<Object> findItemById(Long userId, Long itemId) {
-        return get("/" + itemId, userId);
+    public CompletableFuture<ResponseEntity<Object>> updateItem(Long userId, ItemDto dto, Long itemId) {
+        return patch("/" + itemId, userId, dto).thenApply(response -> invalidateItem(itemId, response));
     }
 
-    public ResponseEntity<Object> findAll(Long userId, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> findItemById(Long userId, Long itemId, String ifNoneMatch) {
+        return getShared(ITEM_KEY + itemId, "/" + itemId, userId, null, ifNoneMatch);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> findAll(Long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -48,20 +88,39 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> findItemByDescription(String text, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> findPopular(String window, int size) {
+        Map<String, Object> parameters = Map.of(
+                "window", window,
+                "size", size
+        );
+        return get("/popular?window={window}&size={size}", null, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> findItemByDescription(String text, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        String cacheKey = SEARCH_KEY + "text=" + text.toLowerCase(Locale.ROOT)
+                + "&from=" + from / size * size + "&size=" + size;
+        return getShared(cacheKey, "/search?text={text}&from={from}&size={size}", null, parameters, null);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> removeItemById(Long userId, Long itemId) {
+        return delete("/" + itemId, userId).thenApply(response -> invalidateItem(itemId, response));
     }
 
-    public ResponseEntity<Object> removeItemById(Long userId, Long itemId) {
-        return delete("/" + itemId, userId);
+    public CompletableFuture<ResponseEntity<Object>> addComment(Long userId, CommentDto commentDto, Long itemId) {
+        return post("/" + itemId + "/comment", userId, commentDto)
+                .thenApply(response -> invalidateItem(itemId, response));
     }
 
-    public ResponseEntity<Object> addComment(Long userId, CommentDto commentDto, Long itemId) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+    private ResponseEntity<Object> invalidateItem(Long itemId, ResponseEntity<Object> response) {
+        if (response.getStatusCode().is2xxSuccessful()) {
+            responses.invalidate(ITEM_KEY + itemId);
+            responses.invalidatePrefix(SEARCH_KEY);
+        }
+        return response;
     }
 }
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -8,8 +10,14 @@ import ru.practicum.shareit.constants.Request;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping(path = "/items")
@@ -19,45 +27,62 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader(Request.USER_ID) Long userId,
+    public CompletableFuture<ResponseEntity<Object>> createItem(@RequestHeader(Request.USER_ID) Long userId,
                                              @Valid @RequestBody ItemDto dto) {
         return itemClient.createItem(userId, dto);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, Request.TEXT_CSV})
+    public void importItems(@RequestHeader(Request.USER_ID) Long userId, HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        itemClient.importItems(userId, MediaType.parseMediaType(request.getContentType()), request.getInputStream(),
+                response);
+    }
+
     @PatchMapping("{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(Request.USER_ID) Long userId, @RequestBody ItemDto dto,
+    public CompletableFuture<ResponseEntity<Object>> updateItem(@RequestHeader(Request.USER_ID) Long userId,
+                                                                @RequestBody ItemDto dto,
                               @PathVariable Long itemId) {
         return itemClient.updateItem(userId, dto, itemId);
     }
 
     @GetMapping("{itemId}")
-    public ResponseEntity<Object> findItemById(@RequestHeader(Request.USER_ID) Long userId,
-                                               @PathVariable Long itemId) {
-        return itemClient.findItemById(userId, itemId);
+    public CompletableFuture<ResponseEntity<Object>> findItemById(@RequestHeader(Request.USER_ID) Long userId,
+                                               @PathVariable Long itemId,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                               String ifNoneMatch) {
+        return itemClient.findItemById(userId, itemId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAll(@RequestHeader(Request.USER_ID) Long userId,
+    public CompletableFuture<ResponseEntity<Object>> findAll(@RequestHeader(Request.USER_ID) Long userId,
                                         @RequestParam(defaultValue = "0", required = false) @Min(0) int from,
                                         @RequestParam(defaultValue = "10", required = false) @Min(1) int size) {
         return itemClient.findAll(userId, from, size);
     }
 
+    @GetMapping("/popular")
+    public CompletableFuture<ResponseEntity<Object>> findPopular(@RequestParam(defaultValue = "7d")
+                                              @Pattern(regexp = "\\d+[mhd]") String window,
+                                              @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size) {
+        return itemClient.findPopular(window, size);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Object> findItemByDescription(@RequestParam(required = false) String text,
+    public CompletableFuture<ResponseEntity<Object>> findItemByDescription(@RequestParam(required = false) String text,
                                                @RequestParam(defaultValue = "0", required = false) @Min(0) int from,
                                                @RequestParam(defaultValue = "10", required = false) @Min(1) int size) {
         return itemClient.findItemByDescription(text, from, size);
     }
 
     @DeleteMapping("{itemId}")
-    public void removeItemById(@RequestHeader(Request.USER_ID) Long userId,
-                               @PathVariable Long itemId) {
-        itemClient.removeItemById(userId, itemId);
+    public CompletableFuture<ResponseEntity<Object>> removeItemById(@RequestHeader(Request.USER_ID) Long userId,
+                                                 @PathVariable Long itemId) {
+        return itemClient.removeItemById(userId, itemId);
     }
 
     @PostMapping("{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(Request.USER_ID) Long userId,
+    public CompletableFuture<ResponseEntity<Object>> addComment(@RequestHeader(Request.USER_ID) Long userId,
                                              @Valid @RequestBody CommentDto commentDto,
                                              @PathVariable Long itemId) {
         return itemClient.addComment(userId, commentDto, itemId);
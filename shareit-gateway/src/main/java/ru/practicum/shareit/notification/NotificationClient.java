@@ -0,0 +1,67 @@
+package ru.practicum.shareit.notification;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.EventStreamRelay;
+import ru.practicum.shareit.client.GatewayTransport;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.UserIdCache;
+import ru.practicum.shareit.client.ValidatorCache;
+import ru.practicum.shareit.constants.Request;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class NotificationClient extends BaseClient {
+    private static final String API_PREFIX = "/events";
+
+    private final EventStreamRelay relay;
+
+    @Autowired
+    public NotificationClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                              EventStreamRelay relay, GatewayTransport transport,
+                              RequestCoalescer coalescer, ValidatorCache validators,
+                              ResponseCache responses, UserIdCache userIds) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                transport,
+                coalescer,
+                validators,
+                responses,
+                userIds
+        );
+        this.relay = relay;
+    }
+
+    public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> subscribe(long userId, String lastEventId) {
+        checkKnownUser(userId);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+        headers.set(Request.USER_ID, String.valueOf(userId));
+        if (lastEventId != null) {
+            headers.set(Request.LAST_EVENT_ID, lastEventId);
+        }
+        return relay.open(rest.getUriTemplateHandler().expand(""), headers)
+                .thenApply(response -> {
+                    rememberUser(userId, response.getStatusCode(), response.getHeaders());
+                    ResponseEntity.BodyBuilder relayed = ResponseEntity.status(response.getStatusCode());
+                    MediaType contentType = response.getHeaders().getContentType();
+                    if (contentType != null) {
+                        relayed.contentType(contentType);
+                    }
+                    return relayed.body(response.getBody());
+                });
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.notification;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import ru.practicum.shareit.constants.Request;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/events")
+public class NotificationController {
+    private final NotificationClient notificationClient;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> subscribe(
+            @RequestHeader(Request.USER_ID) Long userId,
+            @RequestHeader(value = Request.LAST_EVENT_ID, required = false) String lastEventId) {
+        return notificationClient.subscribe(userId, lastEventId);
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.client.UserIdCache;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "shareit-gateway.rate-limit", name = "enabled", matchIfMissing = true)
+public class RateLimitConfig implements WebMvcConfigurer {
+    private final RateLimiter rateLimiter;
+    private final UserIdCache userIds;
+
+    public RateLimitConfig(RateLimitProperties properties, UserIdCache userIds) {
+        this.rateLimiter = new RateLimiter(properties);
+        this.userIds = userIds;
+    }
+
+    @Bean
+    public RateLimiter rateLimiter() {
+        return rateLimiter;
+    }
+
+    @Bean
+    public RateLimitEndpoint rateLimitEndpoint() {
+        return new RateLimitEndpoint(rateLimiter);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter, userIds))
+                .excludePathPatterns("/batch");
+    }
+}
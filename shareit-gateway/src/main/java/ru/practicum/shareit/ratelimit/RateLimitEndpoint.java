@@ -0,0 +1,33 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.Locale;
+import java.util.Map;
+
+@Endpoint(id = "ratelimits")
+@RequiredArgsConstructor
+public class RateLimitEndpoint {
+    private final RateLimiter rateLimiter;
+
+    @ReadOperation
+    public Map<RouteGroup, RateLimitProperties.Limit> limits() {
+        return rateLimiter.getLimits();
+    }
+
+    @WriteOperation
+    public Map<RouteGroup, RateLimitProperties.Limit> updateLimit(@Selector String group, double rate, int burst) {
+        try {
+            rateLimiter.updateLimit(RouteGroup.valueOf(group.toUpperCase(Locale.ROOT)),
+                    new RateLimitProperties.Limit(rate, burst));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        return rateLimiter.getLimits();
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+
+    private int maxBuckets = 100_000;
+
+    private Duration idleEviction = Duration.ofMinutes(1);
+
+    private Map<RouteGroup, Limit> groups = new EnumMap<>(Map.of(
+            RouteGroup.READS, new Limit(50, 100),
+            RouteGroup.WRITES, new Limit(10, 20),
+            RouteGroup.SEARCH, new Limit(20, 40)
+    ));
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private double rate;
+
+        private int burst;
+    }
+}
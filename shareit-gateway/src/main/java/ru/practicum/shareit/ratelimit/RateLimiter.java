@@ -0,0 +1,91 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class RateLimiter {
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<RouteGroup, RateLimitProperties.Limit> limits = new ConcurrentHashMap<>();
+    private final Map<RouteGroup, TokenBucket> overflow = new EnumMap<>(RouteGroup.class);
+    private final AtomicLong lastEviction = new AtomicLong(System.nanoTime());
+    private final AtomicBoolean overflowReported = new AtomicBoolean();
+    private final int maxBuckets;
+    private final long idleEvictionNanos;
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.maxBuckets = properties.getMaxBuckets();
+        this.idleEvictionNanos = properties.getIdleEviction().toNanos();
+        long now = System.nanoTime();
+        for (RouteGroup group : RouteGroup.values()) {
+            overflow.put(group, new TokenBucket(now));
+        }
+        properties.getGroups().forEach(this::updateLimit);
+    }
+
+    public long tryAcquire(RouteGroup group, String client) {
+        return tryAcquire(group, client, client);
+    }
+
+    /**
+     * Списывает запрос со счётчика клиента. Если счётчиков слишком много, запрос списывается
+     * со счётчика запасного ключа (адреса клиента), а если нельзя завести и его — с общего
+     * счётчика группы, который делят все такие клиенты.
+     */
+    public long tryAcquire(RouteGroup group, String client, String fallbackClient) {
+        RateLimitProperties.Limit limit = limits.get(group);
+        if (limit == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        evictIdle(now);
+
+        TokenBucket bucket = bucket(group + " " + client, now);
+        if (bucket == null && !fallbackClient.equals(client)) {
+            bucket = bucket(group + " " + fallbackClient, now);
+        }
+        if (bucket == null) {
+            if (overflowReported.compareAndSet(false, true)) {
+                log.warn("Достигнут предел числа счётчиков запросов: {}, используется общий счётчик.", maxBuckets);
+            }
+            bucket = overflow.get(group);
+        }
+        return bucket.tryAcquire(limit, now);
+    }
+
+    public Map<RouteGroup, RateLimitProperties.Limit> getLimits() {
+        return Collections.unmodifiableMap(new EnumMap<>(limits));
+    }
+
+    public void updateLimit(RouteGroup group, RateLimitProperties.Limit limit) {
+        if (limit.getRate() <= 0 || limit.getBurst() < 1) {
+            throw new IllegalArgumentException("Некорректный лимит запросов для группы " + group + ".");
+        }
+        limits.put(group, new RateLimitProperties.Limit(limit.getRate(), limit.getBurst()));
+        log.info("Лимит запросов группы {}: {} в секунду, запас {}.", group, limit.getRate(), limit.getBurst());
+    }
+
+    private void evictIdle(long now) {
+        long last = lastEviction.get();
+        if (now - last < idleEvictionNanos || !lastEviction.compareAndSet(last, now)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        overflowReported.set(false);
+    }
+
+    private TokenBucket bucket(String key, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null || buckets.size() >= maxBuckets) {
+            return bucket;
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.springframework.http.HttpMethod;
+
+import javax.servlet.http.HttpServletRequest;
+
+public enum RouteGroup {
+    READS,
+    WRITES,
+    SEARCH;
+
+    public static RouteGroup of(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+            return WRITES;
+        }
+        return request.getRequestURI().endsWith("/search") ? SEARCH : READS;
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+class TokenBucket {
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long now) {
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    long tryAcquire(RateLimitProperties.Limit limit, long now) {
+        long interval = (long) (1_000_000_000L / limit.getRate());
+        long tolerance = interval * Math.max(limit.getBurst() - 1, 0);
+        while (true) {
+            long current = theoreticalArrival.get();
+            long arrival = Math.max(current, now);
+            long wait = arrival - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, arrival + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    boolean isFull(long now) {
+        return theoreticalArrival.get() <= now;
+    }
+}
@@ -1,40 +1,66 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayTransport;
+import ru.practicum.shareit.client.HttpClientConfig;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.UserIdCache;
+import ru.practicum.shareit.client.ValidatorCache;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             @Qualifier(HttpClientConfig.STREAMING) ClientHttpRequestFactory requestFactory,
+                             GatewayTransport transport,
+                             RequestCoalescer coalescer, ValidatorCache validators,
+                             ResponseCache responses, UserIdCache userIds) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                transport,
+                coalescer,
+                validators,
+                responses,
+                userIds
         );
     }
 
-    public ResponseEntity<Object> createRequest(Long userId, ItemRequestDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> createRequest(Long userId, ItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> findAllWithReplies(Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> findAllWithReplies(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> findAll(Long userId, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> findAllSummary(Long userId, int replies) {
+        Map<String, Object> parameters = Map.of(
+                "replies", replies
+        );
+
+        return get("/summary?replies={replies}", userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> findAll(Long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -43,7 +69,22 @@ public class ItemRequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> findByIdWithReplies(Long userId, Long requestId) {
-        return get("/" + requestId, userId);
+    public CompletableFuture<ResponseEntity<Object>> findFeed(Long userId, String cursor, int size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("size", size);
+        if (cursor == null) {
+            return get("/feed?size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get("/feed?cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> findSuggestions(Long userId) {
+        return get("/suggestions", userId);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> findByIdWithReplies(Long userId, Long requestId,
+                                                                         String ifNoneMatch) {
+        return get("/" + requestId, userId, ifNoneMatch);
     }
 }
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -8,8 +9,11 @@ import ru.practicum.shareit.constants.Request;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequiredArgsConstructor
 @Validated
@@ -18,26 +22,48 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@RequestHeader(Request.USER_ID) Long userId,
+    public CompletableFuture<ResponseEntity<Object>> createRequest(@RequestHeader(Request.USER_ID) Long userId,
                                                 @Valid @RequestBody ItemRequestDto requestDto) {
         return itemRequestClient.createRequest(userId, requestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAllWithReplies(@RequestHeader(Request.USER_ID) Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> findAllWithReplies(@RequestHeader(Request.USER_ID) Long userId) {
         return itemRequestClient.findAllWithReplies(userId);
     }
 
+    @GetMapping("/summary")
+    public CompletableFuture<ResponseEntity<Object>> findAllSummary(@RequestHeader(Request.USER_ID) Long userId,
+                                                 @RequestParam(defaultValue = "3", required = false)
+                                                 @Min(0) @Max(20) int replies) {
+        return itemRequestClient.findAllSummary(userId, replies);
+    }
+
     @GetMapping("/all")
-    public ResponseEntity<Object> findAll(@RequestHeader(Request.USER_ID) Long userId,
+    public CompletableFuture<ResponseEntity<Object>> findAll(@RequestHeader(Request.USER_ID) Long userId,
                                                @RequestParam(defaultValue = "0", required = false) @Min(0) int from,
                                                @RequestParam(defaultValue = "10", required = false) @Min(1) int size) {
         return itemRequestClient.findAll(userId, from, size);
     }
 
+    @GetMapping("/feed")
+    public CompletableFuture<ResponseEntity<Object>> findFeed(@RequestHeader(Request.USER_ID) Long userId,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "10", required = false)
+                                           @Min(1) @Max(100) int size) {
+        return itemRequestClient.findFeed(userId, cursor, size);
+    }
+
+    @GetMapping("/suggestions")
+    public CompletableFuture<ResponseEntity<Object>> findSuggestions(@RequestHeader(Request.USER_ID) Long userId) {
+        return itemRequestClient.findSuggestions(userId);
+    }
+
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> findByIdWithReplies(@RequestHeader(Request.USER_ID) Long userId,
-                                                     @PathVariable Long requestId) {
-        return itemRequestClient.findByIdWithReplies(userId, requestId);
+    public CompletableFuture<ResponseEntity<Object>> findByIdWithReplies(@RequestHeader(Request.USER_ID) Long userId,
+                                                     @PathVariable Long requestId,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                                                             required = false) String ifNoneMatch) {
+        return itemRequestClient.findByIdWithReplies(userId, requestId, ifNoneMatch);
     }
 }
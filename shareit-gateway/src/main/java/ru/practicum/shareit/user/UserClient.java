@@ -1,46 +1,109 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayTransport;
+import ru.practicum.shareit.client.HttpClientConfig;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.UserIdCache;
+import ru.practicum.shareit.client.ValidatorCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      @Qualifier(HttpClientConfig.STREAMING) ClientHttpRequestFactory requestFactory,
+                      GatewayTransport transport,
+                      RequestCoalescer coalescer, ValidatorCache validators,
+                      ResponseCache responses, UserIdCache userIds) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                transport,
+                coalescer,
+                validators,
+                responses,
+                userIds
         );
     }
 
-    public ResponseEntity<Object> findUsers() {
-        return get("");
+    public CompletableFuture<ResponseEntity<Object>> findUsers(int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+
+        return get("?from={from}&size={size}", null, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> findUsersAfter(long afterId, int size) {
+        Map<String, Object> parameters = Map.of(
+                "afterId", afterId,
+                "size", size
+        );
+
+        return get("?afterId={afterId}&size={size}", null, parameters);
     }
 
-    public ResponseEntity<Object> findUserById(long id) {
+    public void streamUsers(HttpServletResponse response) throws IOException {
+        streamGet("", null, MediaType.APPLICATION_JSON, new HttpHeaders(), response);
+    }
+
+    public void exportUsers(HttpServletResponse response) throws IOException {
+        streamGet("/export", null, MediaType.APPLICATION_NDJSON, new HttpHeaders(), response);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> findUserById(long id) {
         return get("/" + id);
     }
 
-    public ResponseEntity<Object> createUser(UserDto userDto) {
-        return post("", userDto);
+    public CompletableFuture<ResponseEntity<Object>> createUser(UserDto userDto) {
+        return post("", userDto).thenApply(response -> {
+            if (response.getStatusCode().is2xxSuccessful()) {
+                userIds.invalidateMissing();
+            }
+            return response;
+        });
+    }
+
+    public void provisionUsers(InputStream body, HttpServletResponse response) throws IOException {
+        stream(HttpMethod.POST, "/bulk", null, MediaType.APPLICATION_NDJSON, body, response);
+        userIds.invalidateMissing();
     }
 
-    public ResponseEntity<Object> patchUser(long id, UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> patchUser(long id, UserDto userDto) {
         return patch("/" + id, userDto);
     }
 
-    public ResponseEntity<Object> removeUserById(long id) {
-        return delete("/" + id);
+    public CompletableFuture<ResponseEntity<Object>> removeUserById(long id) {
+        return delete("/" + id).thenApply(response -> {
+            if (response.getStatusCode().is2xxSuccessful()) {
+                userIds.markMissing(id);
+                responses.invalidateAll();
+            }
+            return response;
+        });
     }
 }
\ No newline at end of file
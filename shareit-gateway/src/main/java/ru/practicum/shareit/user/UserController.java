@@ -1,12 +1,19 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping(path = "/users")
@@ -16,27 +23,49 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Valid @RequestBody UserDto dto) {
+    public CompletableFuture<ResponseEntity<Object>> createUser(@Valid @RequestBody UserDto dto) {
         return userClient.createUser(dto);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void provisionUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        userClient.provisionUsers(request.getInputStream(), response);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Object> findUserById(@PathVariable long id) {
+    public CompletableFuture<ResponseEntity<Object>> findUserById(@PathVariable long id) {
         return userClient.findUserById(id);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateUser(@RequestBody UserDto dto, @PathVariable long id) {
+    public CompletableFuture<ResponseEntity<Object>> updateUser(@RequestBody UserDto dto, @PathVariable long id) {
         return userClient.patchUser(id, dto);
     }
 
     @DeleteMapping("/{id}")
-    public void removeUserById(@PathVariable long id) {
-        userClient.removeUserById(id);
+    public CompletableFuture<ResponseEntity<Object>> removeUserById(@PathVariable long id) {
+        return userClient.removeUserById(id);
+    }
+
+    @GetMapping(params = {"!from", "!size", "!afterId"})
+    public void streamAll(HttpServletResponse response) throws IOException {
+        userClient.streamUsers(response);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAll() {
-        return userClient.findUsers();
+    public CompletableFuture<ResponseEntity<Object>> findAll(@RequestParam(defaultValue = "0",
+                                                             required = false) @Min(0) int from,
+                                          @RequestParam(defaultValue = "10", required = false)
+                                          @Min(1) @Max(1000) int size,
+                                          @RequestParam(required = false) @Min(0) Long afterId) {
+        if (afterId != null) {
+            return userClient.findUsersAfter(afterId, size);
+        }
+        return userClient.findUsers(from, size);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportUsers(HttpServletResponse response) throws IOException {
+        userClient.exportUsers(response);
     }
 }
\ No newline at end of file
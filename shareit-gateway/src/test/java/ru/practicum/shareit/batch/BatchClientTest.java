@@ -0,0 +1,233 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.batch.dto.BatchItemDto;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.client.GatewayTransport;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.UserIdCache;
+import ru.practicum.shareit.client.ValidatorCache;
+import ru.practicum.shareit.ratelimit.RateLimitProperties;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+import ru.practicum.shareit.ratelimit.RouteGroup;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class BatchClientTest {
+    private static final String ADDRESS = "10.0.0.1";
+
+    private final Queue<URI> sent = new ConcurrentLinkedQueue<>();
+    private final UserIdCache userIds = new UserIdCache(100, Duration.ofMinutes(1), Duration.ofSeconds(5));
+    private final RequestCoalescer coalescer = new RequestCoalescer(new SimpleMeterRegistry(),
+            Duration.ofSeconds(5), 2, 2);
+    private GatewayTransport transport = (method, uri, headers, body) -> {
+        sent.add(uri);
+        return CompletableFuture.completedFuture(ok());
+    };
+    private BatchClient client;
+
+    @AfterEach
+    void shutdown() {
+        if (client != null) {
+            client.shutdown();
+        }
+        coalescer.shutdown();
+    }
+
+    @Test
+    void onlyGetRequestsAreAllowed() throws Exception {
+        List<BatchResultDto> results = execute(client(null, 4), List.of(item("POST", "/users/1")));
+
+        Assertions.assertThat(results.get(0).getStatus()).isEqualTo(405);
+        Assertions.assertThat(sent).isEmpty();
+    }
+
+    @Test
+    void pathsOutsideAllowListAreRejected() throws Exception {
+        List<BatchResultDto> results = execute(client(null, 4), List.of(
+                item("GET", "/users/export"),
+                item("GET", "/deletions/1"),
+                item("GET", "/items/1/comment"),
+                item("GET", "/items/abc"),
+                item("GET", "/users/{id}?size=1"),
+                item("GET", "http://evil/users/1")
+        ));
+
+        Assertions.assertThat(results).extracting(BatchResultDto::getStatus).containsOnly(400);
+        Assertions.assertThat(sent).isEmpty();
+    }
+
+    @Test
+    void parametersAreValidatedLikeControllers() throws Exception {
+        List<BatchResultDto> results = execute(client(null, 4), List.of(
+                item("GET", "/users?size=0"),
+                item("GET", "/users?size=1001"),
+                item("GET", "/users"),
+                item("GET", "/users?from=0"),
+                item("GET", "/items?from=-1"),
+                item("GET", "/items?size=abc"),
+                item("GET", "/items?size=1&size=2"),
+                item("GET", "/items?limit=1"),
+                item("GET", "/items/popular?window=7w"),
+                item("GET", "/requests/summary?replies=21"),
+                item("GET", "/bookings?state=unknown")
+        ));
+
+        Assertions.assertThat(results).extracting(BatchResultDto::getStatus)
+                .containsExactly(400, 400, 400, 400, 400, 400, 400, 400, 400, 400, 500);
+        Assertions.assertThat(results.get(2).getBody()).contains("size");
+        Assertions.assertThat(results.get(10).getBody()).contains("Unknown state: UNSUPPORTED_STATUS");
+        Assertions.assertThat(sent).isEmpty();
+    }
+
+    @Test
+    void validRequestsAreSent() throws Exception {
+        List<BatchResultDto> results = execute(client(null, 4), List.of(
+                item("GET", "/users?size=10&afterId=5"),
+                item("GET", "/users/1/"),
+                item("GET", "/items/popular?window=7d&size=5"),
+                item("GET", "/items/search?text=%D0%B4%D1%80%D0%B5%D0%BB%D1%8C&size=%31"),
+                item("GET", "/bookings/owner?state=waiting&from=0&size=10"),
+                item("GET", "/requests/feed?cursor=abc&size=20")
+        ));
+
+        Assertions.assertThat(results).extracting(BatchResultDto::getStatus).containsOnly(200);
+        Assertions.assertThat(sent).hasSize(6);
+        Assertions.assertThat(results.get(0).getBody()).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void encodedQueryIsForwardedAsIs() throws Exception {
+        List<BatchResultDto> results = execute(client(null, 1), List.of(
+                item("GET", "/items/search?text=%D0%B4%D1%80&size=1"),
+                item("GET", "/items/search?text=a%26b"),
+                item("GET", "/items/search?text=дрель"),
+                item("GET", "/items/search?text=a b")
+        ));
+
+        Assertions.assertThat(results).extracting(BatchResultDto::getStatus).containsExactly(200, 200, 400, 400);
+        Assertions.assertThat(sent).extracting(URI::toString).containsExactly(
+                "http://server/items/search?text=%D0%B4%D1%80&size=1",
+                "http://server/items/search?text=a%26b");
+    }
+
+    @Test
+    void eachSubRequestIsChargedToRateLimit() throws Exception {
+        RateLimiter limiter = limiter();
+        client = client(limiter, 1);
+        userIds.markKnown(1L);
+
+        List<BatchResultDto> results = execute(client, List.of(
+                item("GET", "/items/1"),
+                item("GET", "/items/2"),
+                item("GET", "/items/3")
+        ));
+
+        Assertions.assertThat(results).extracting(BatchResultDto::getStatus).containsExactly(200, 200, 429);
+        Assertions.assertThat(sent).hasSize(2);
+        Assertions.assertThat(limiter.tryAcquire(RouteGroup.READS, "user 1")).isPositive();
+        Assertions.assertThat(limiter.tryAcquire(RouteGroup.READS, "ip " + ADDRESS)).isZero();
+    }
+
+    @Test
+    void unknownUserIsChargedByAddress() throws Exception {
+        RateLimiter limiter = limiter();
+        client = client(limiter, 1);
+
+        execute(client, List.of(item("GET", "/items/1")));
+
+        Assertions.assertThat(limiter.tryAcquire(RouteGroup.READS, "ip " + ADDRESS)).isZero();
+        Assertions.assertThat(limiter.tryAcquire(RouteGroup.READS, "ip " + ADDRESS)).isPositive();
+    }
+
+    @Test
+    void atMostParallelismRequestsRunAtOnce() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Queue<CompletableFuture<ResponseEntity<byte[]>>> pending = new ConcurrentLinkedQueue<>();
+        transport = (method, uri, headers, body) -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            CompletableFuture<ResponseEntity<byte[]>> response = new CompletableFuture<>();
+            pending.add(response);
+            return response.whenComplete((result, error) -> running.decrementAndGet());
+        };
+        client = client(null, 2);
+
+        CompletableFuture<List<BatchResultDto>> batch = client.execute(1L, ADDRESS,
+                IntStream.rangeClosed(1, 6).mapToObj(id -> item("GET", "/items/" + id)).collect(Collectors.toList()));
+        for (int completed = 0; completed < 6; completed++) {
+            CompletableFuture<ResponseEntity<byte[]>> next = awaitPending(pending);
+            Assertions.assertThat(running.get()).isLessThanOrEqualTo(2);
+            next.complete(ok());
+        }
+
+        List<BatchResultDto> results = batch.get(1, TimeUnit.SECONDS);
+        Assertions.assertThat(maxRunning.get()).isEqualTo(2);
+        Assertions.assertThat(results).extracting(BatchResultDto::getPath)
+                .containsExactly("/items/1", "/items/2", "/items/3", "/items/4", "/items/5", "/items/6");
+    }
+
+    private BatchClient client(RateLimiter limiter, int parallelism) {
+        StaticListableBeanFactory beans = limiter != null
+                ? new StaticListableBeanFactory(Map.of("rateLimiter", limiter))
+                : new StaticListableBeanFactory();
+        client = new BatchClient("http://server", new RestTemplateBuilder(),
+                (method, uri, headers, body) -> transport.exchange(method, uri, headers, body), coalescer,
+                new ValidatorCache(100, Duration.ofSeconds(30)), new ResponseCache(100, Duration.ofSeconds(30)),
+                userIds, beans.getBeanProvider(RateLimiter.class), new ObjectMapper(), parallelism, 4);
+        return client;
+    }
+
+    private List<BatchResultDto> execute(BatchClient client, List<BatchItemDto> requests) throws Exception {
+        return client.execute(1L, ADDRESS, requests).get(1, TimeUnit.SECONDS);
+    }
+
+    private static CompletableFuture<ResponseEntity<byte[]>> awaitPending(
+            Queue<CompletableFuture<ResponseEntity<byte[]>>> pending) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (System.nanoTime() < deadline) {
+            CompletableFuture<ResponseEntity<byte[]>> next = pending.poll();
+            if (next != null) {
+                return next;
+            }
+            Thread.sleep(1);
+        }
+        throw new AssertionError("Пакетный запрос не отправлен.");
+    }
+
+    private static RateLimiter limiter() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getGroups().put(RouteGroup.READS, new RateLimitProperties.Limit(0.1, 2));
+        return new RateLimiter(properties);
+    }
+
+    private static BatchItemDto item(String method, String path) {
+        return BatchItemDto.builder().method(method).path(path).build();
+    }
+
+    private static ResponseEntity<byte[]> ok() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+    }
+}
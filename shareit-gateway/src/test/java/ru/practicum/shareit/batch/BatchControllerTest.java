@@ -0,0 +1,87 @@
+package ru.practicum.shareit.batch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.client.UserIdCache;
+import ru.practicum.shareit.constants.Request;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = BatchController.class)
+@Import(UserIdCache.class)
+public class BatchControllerTest {
+    private static final String URL = "http://localhost:8080/batch";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BatchClient client;
+
+    @Test
+    void succeedBatch() throws Exception {
+        when(client.execute(eq(1L), anyString(), anyList())).thenReturn(CompletableFuture.completedFuture(List.of(
+                new BatchResultDto("GET", "/users/1", 200, "{\"id\":1,\"name\":\"Nick\"}"),
+                new BatchResultDto("GET", "/items/2", 404, "{\"Объект не найден\":\"Вещь не найдена.\"}")
+        )));
+
+        MvcResult result = mockMvc.perform(post(URL)
+                        .header(Request.USER_ID, 1L)
+                        .content("[" +
+                                "{\"method\": \"GET\", \"path\": \"/users/1\"}," +
+                                "{\"method\": \"GET\", \"path\": \"/items/2\"}" +
+                                "]")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpectAll(
+                        status().isOk(),
+                        content().json("[" +
+                                "{\"path\": \"/users/1\", \"status\": 200, \"body\": {\"id\": 1, \"name\": \"Nick\"}}," +
+                                "{\"path\": \"/items/2\", \"status\": 404}" +
+                                "]")
+                );
+    }
+
+    @Test
+    void emptyBatch() throws Exception {
+        mockMvc.perform(post(URL)
+                        .header(Request.USER_ID, 1L)
+                        .content("[]")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void batchWithoutPath() throws Exception {
+        mockMvc.perform(post(URL)
+                        .header(Request.USER_ID, 1L)
+                        .content("[{\"method\": \"GET\"}]")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+}
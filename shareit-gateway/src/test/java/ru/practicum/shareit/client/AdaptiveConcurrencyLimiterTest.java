@@ -0,0 +1,119 @@
+package ru.practicum.shareit.client;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class AdaptiveConcurrencyLimiterTest {
+    private static final int WINDOW = 10;
+
+    private long now;
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(), () -> now);
+
+    @Test
+    void shedsRequestsOverLimit() {
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertThat(limiter.tryAcquire()).isTrue();
+        }
+
+        Assertions.assertThat(limiter.tryAcquire()).isFalse();
+        Assertions.assertThat(limiter.getInFlight()).isEqualTo(100);
+    }
+
+    @Test
+    void droppedRequestsShrinkLimitOncePerRtt() {
+        sample(1, 10);
+
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.onComplete(millis(10), true);
+        limiter.onComplete(millis(10), true);
+        Assertions.assertThat(limiter.getLimit()).isEqualTo(90);
+
+        now += millis(10);
+        limiter.tryAcquire();
+        limiter.onComplete(millis(10), true);
+        Assertions.assertThat(limiter.getLimit()).isEqualTo(81);
+    }
+
+    @Test
+    void risingLatencyShrinksLimitAndSheds() {
+        sample(WINDOW, 10);
+        Assertions.assertThat(limiter.getLimit()).isEqualTo(100);
+
+        sample(WINDOW, 40);
+
+        int limit = limiter.getLimit();
+        Assertions.assertThat(limit).isLessThan(100);
+        for (int i = 0; i < limit; i++) {
+            limiter.tryAcquire();
+        }
+        Assertions.assertThat(limiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void sustainedOverloadDoesNotBecomeBaseline() {
+        sample(WINDOW, 10);
+        sample(WINDOW, 40);
+        int afterFirstWindow = limiter.getLimit();
+
+        sample(WINDOW, 40);
+
+        Assertions.assertThat(limiter.getLimit()).isLessThan(afterFirstWindow);
+    }
+
+    @Test
+    void lastingLatencyShiftIsAdoptedGradually() {
+        sample(WINDOW, 10);
+        sample(WINDOW * 40, 40);
+        int settled = limiter.getLimit();
+
+        sample(WINDOW, 40, 100);
+
+        Assertions.assertThat(limiter.getLimit()).isGreaterThan(settled);
+    }
+
+    @Test
+    void limitRecoversWhenLatencyReturnsToBaseline() {
+        sample(WINDOW, 10);
+        sample(WINDOW, 40);
+        int reduced = limiter.getLimit();
+
+        sample(WINDOW * 5, 10, reduced);
+
+        Assertions.assertThat(limiter.getLimit()).isGreaterThan(reduced);
+    }
+
+    private void sample(int rounds, long rttMillis) {
+        sample(rounds, rttMillis, 1);
+    }
+
+    private void sample(int rounds, long rttMillis, int concurrency) {
+        for (int i = 0; i < rounds; i++) {
+            int acquired = 0;
+            while (acquired < concurrency && limiter.tryAcquire()) {
+                acquired++;
+            }
+            now += millis(rttMillis);
+            for (int j = 0; j < acquired; j++) {
+                limiter.onComplete(millis(rttMillis), false);
+            }
+        }
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static ConcurrencyLimitProperties properties() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(100);
+        properties.setMinLimit(1);
+        properties.setMaxLimit(200);
+        properties.setBackoffRatio(0.9);
+        properties.setRttTolerance(2.0);
+        properties.setRttWindow(WINDOW);
+        return properties;
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncTransportTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch respond = new CountDownLatch(1);
+    private HttpServer server;
+    private AsyncTransport transport;
+
+    @BeforeEach
+    void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/items", exchange -> {
+            try {
+                respond.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setMaxConnections(1);
+        properties.setPoolAcquireTimeout(Duration.ofMillis(50));
+        transport = new AsyncTransport(properties, new ObjectMapper(), meterRegistry);
+    }
+
+    @AfterEach
+    void shutdown() {
+        respond.countDown();
+        transport.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void failsFastWhenAllConnectionsAreLeased() throws Exception {
+        CompletableFuture<ResponseEntity<byte[]>> first = exchange();
+
+        Assertions.assertThat(leased()).isEqualTo(1);
+        Assertions.assertThatThrownBy(() -> exchange().get(1, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ResourceAccessException.class);
+        Assertions.assertThat(meterRegistry.get("shareit.gateway.async.connections.acquire-timeouts")
+                .counter().count()).isEqualTo(1);
+
+        respond.countDown();
+        Assertions.assertThat(first.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(exchange().get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(leased()).isZero();
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> exchange() {
+        URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/items");
+        return transport.exchange(HttpMethod.GET, uri, new HttpHeaders(), null);
+    }
+
+    private double leased() {
+        return meterRegistry.get("shareit.gateway.async.connections.leased").gauge().value();
+    }
+}
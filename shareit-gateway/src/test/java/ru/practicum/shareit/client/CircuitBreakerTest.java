@@ -0,0 +1,107 @@
+package ru.practicum.shareit.client;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class CircuitBreakerTest {
+    private static final long OPEN_NANOS = Duration.ofSeconds(10).toNanos();
+
+    private final CircuitBreaker breaker = new CircuitBreaker("items", properties());
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        fail(2, 0);
+        breaker.onResult(true, 0);
+        fail(2, 0);
+        Assertions.assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        fail(1, 100);
+
+        Assertions.assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        Assertions.assertThat(breaker.tryAcquire(100 + OPEN_NANOS / 2)).isEqualTo(OPEN_NANOS / 2);
+    }
+
+    @Test
+    void halfOpenAdmitsLimitedProbes() {
+        open();
+
+        Assertions.assertThat(breaker.tryAcquire(OPEN_NANOS)).isZero();
+        Assertions.assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        Assertions.assertThat(breaker.tryAcquire(OPEN_NANOS)).isZero();
+        Assertions.assertThat(breaker.tryAcquire(OPEN_NANOS)).isPositive();
+    }
+
+    @Test
+    void successfulProbesCloseBreaker() {
+        open();
+        breaker.tryAcquire(OPEN_NANOS);
+        breaker.tryAcquire(OPEN_NANOS);
+
+        breaker.onResult(true, OPEN_NANOS);
+        Assertions.assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onResult(true, OPEN_NANOS);
+
+        Assertions.assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        fail(2, OPEN_NANOS);
+        Assertions.assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void failedProbeReopensBreaker() {
+        open();
+        breaker.tryAcquire(OPEN_NANOS);
+
+        breaker.onResult(false, OPEN_NANOS);
+
+        Assertions.assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        Assertions.assertThat(breaker.tryAcquire(OPEN_NANOS + 1)).isEqualTo(OPEN_NANOS - 1);
+    }
+
+    @Test
+    void releasedProbeFreesSlot() {
+        open();
+        breaker.tryAcquire(OPEN_NANOS);
+        breaker.tryAcquire(OPEN_NANOS);
+        Assertions.assertThat(breaker.tryAcquire(OPEN_NANOS)).isPositive();
+
+        breaker.release();
+
+        Assertions.assertThat(breaker.tryAcquire(OPEN_NANOS)).isZero();
+        Assertions.assertThat(breaker.tryAcquire(OPEN_NANOS)).isPositive();
+    }
+
+    @Test
+    void releaseDoesNotReturnCompletedProbes() {
+        open();
+        breaker.tryAcquire(OPEN_NANOS);
+        breaker.tryAcquire(OPEN_NANOS);
+        breaker.onResult(true, OPEN_NANOS);
+
+        breaker.release();
+        breaker.release();
+
+        Assertions.assertThat(breaker.tryAcquire(OPEN_NANOS)).isZero();
+        Assertions.assertThat(breaker.tryAcquire(OPEN_NANOS)).isPositive();
+    }
+
+    private void open() {
+        fail(3, 0);
+        Assertions.assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private void fail(int times, long now) {
+        for (int i = 0; i < times; i++) {
+            breaker.onResult(false, now);
+        }
+    }
+
+    private static ResilienceProperties.Route properties() {
+        ResilienceProperties.Route properties = new ResilienceProperties.Route();
+        properties.setFailureThreshold(3);
+        properties.setOpenDuration(Duration.ofSeconds(10));
+        properties.setHalfOpenCalls(2);
+        return properties;
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class EventStreamRelayTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch disconnect = new CountDownLatch(1);
+    private HttpServer server;
+    private EventStreamRelay relay;
+
+    @BeforeEach
+    void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/events", exchange -> {
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE);
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write("data: hello\n\n".getBytes(StandardCharsets.UTF_8));
+                body.flush();
+                disconnect.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.getEvents().setMaxSubscriptions(1);
+        relay = new EventStreamRelay(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void shutdown() {
+        disconnect.countDown();
+        relay.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void relaysStatusAndHeadersOnceServerResponds() throws Exception {
+        ResponseEntity<ResponseBodyEmitter> response = relay.open(events(), new HttpHeaders())
+                .get(5, TimeUnit.SECONDS);
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.TEXT_EVENT_STREAM);
+        Assertions.assertThat(response.getBody()).isNotNull();
+        Assertions.assertThat(subscriptions()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsSubscriptionsOverLimitAndFreesSlotOnCompletion() throws Exception {
+        relay.open(events(), new HttpHeaders()).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertThatThrownBy(() -> relay.open(events(), new HttpHeaders()))
+                .isInstanceOf(ServiceUnavailableException.class);
+        Assertions.assertThat(meterRegistry.get("shareit.gateway.events.rejections").counter().count())
+                .isEqualTo(1);
+
+        disconnect.countDown();
+        for (int i = 0; i < 50 && subscriptions() > 0; i++) {
+            Thread.sleep(100);
+        }
+        Assertions.assertThat(subscriptions()).isZero();
+    }
+
+    @Test
+    void freesSlotWhenServerIsUnreachable() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        URI unreachable = URI.create("http://127.0.0.1:" + port + "/events");
+
+        Assertions.assertThatThrownBy(() -> relay.open(unreachable, new HttpHeaders()).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ResourceAccessException.class);
+        Assertions.assertThat(subscriptions()).isZero();
+    }
+
+    private URI events() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/events");
+    }
+
+    private double subscriptions() {
+        return meterRegistry.get("shareit.gateway.events.subscriptions").gauge().value();
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+public class GuardedTransportTest {
+    private static final URI ITEM = URI.create("http://server/items/1");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private Supplier<CompletableFuture<ResponseEntity<byte[]>>> upstream;
+    private GuardedTransport transport = transport(Duration.ofMinutes(1));
+
+    @Test
+    void serverErrorsDoNotOpenBreaker() {
+        respond(500);
+        for (int i = 0; i < 5; i++) {
+            call();
+        }
+
+        Assertions.assertThat(state()).isEqualTo(CircuitBreaker.State.CLOSED.ordinal());
+    }
+
+    @Test
+    void unavailableResponsesOpenBreaker() {
+        respond(502);
+        call();
+        respond(504);
+        call();
+
+        Assertions.assertThat(state()).isEqualTo(CircuitBreaker.State.OPEN.ordinal());
+        Assertions.assertThatThrownBy(this::call)
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessageContaining("временно отключён");
+        Assertions.assertThat(available()).isEqualTo(2);
+    }
+
+    @Test
+    void ioErrorsAndTimeoutsOpenBreaker() {
+        upstream = () -> CompletableFuture.failedFuture(new TimeoutException());
+        call();
+        upstream = () -> {
+            throw new ResourceAccessException("connection refused");
+        };
+        Assertions.assertThatThrownBy(this::call).isInstanceOf(ResourceAccessException.class);
+
+        Assertions.assertThat(state()).isEqualTo(CircuitBreaker.State.OPEN.ordinal());
+        Assertions.assertThat(available()).isEqualTo(2);
+    }
+
+    @Test
+    void otherErrorsAreNeutral() {
+        respond(503);
+        call();
+        upstream = () -> CompletableFuture.failedFuture(new IllegalStateException());
+        call();
+        upstream = () -> {
+            throw new IllegalArgumentException();
+        };
+        Assertions.assertThatThrownBy(this::call).isInstanceOf(IllegalArgumentException.class);
+
+        Assertions.assertThat(state()).isEqualTo(CircuitBreaker.State.CLOSED.ordinal());
+        Assertions.assertThat(available()).isEqualTo(2);
+    }
+
+    @Test
+    void downstreamRejectionReleasesProbe() throws InterruptedException {
+        transport = transport(Duration.ofMillis(10));
+        respond(503);
+        call();
+        call();
+        Thread.sleep(20);
+
+        upstream = () -> {
+            throw new ServiceUnavailableException("Сервер перегружен, запрос отклонён.", 1);
+        };
+        Assertions.assertThatThrownBy(this::call).isInstanceOf(ServiceUnavailableException.class);
+        Assertions.assertThatThrownBy(this::call).isInstanceOf(ServiceUnavailableException.class);
+        Assertions.assertThat(state()).isEqualTo(CircuitBreaker.State.HALF_OPEN.ordinal());
+
+        respond(200);
+        call();
+
+        Assertions.assertThat(state()).isEqualTo(CircuitBreaker.State.CLOSED.ordinal());
+        Assertions.assertThat(available()).isEqualTo(2);
+    }
+
+    @Test
+    void bulkheadRejectsWhenFullAndReleasesOnCompletion() {
+        CompletableFuture<ResponseEntity<byte[]>> first = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> second = new CompletableFuture<>();
+        upstream = () -> first;
+        call();
+        upstream = () -> second;
+        call();
+        Assertions.assertThat(available()).isZero();
+
+        Assertions.assertThatThrownBy(this::call)
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessageContaining("Слишком много одновременных запросов");
+
+        first.complete(ResponseEntity.ok(new byte[0]));
+        second.completeExceptionally(new IllegalStateException());
+        Assertions.assertThat(available()).isEqualTo(2);
+    }
+
+    private void respond(int status) {
+        upstream = () -> CompletableFuture.completedFuture(ResponseEntity.status(status).body(new byte[0]));
+    }
+
+    private void call() {
+        transport.exchange(HttpMethod.GET, ITEM, new HttpHeaders(), null);
+    }
+
+    private double state() {
+        return meterRegistry.get("shareit.gateway.route.circuit.state").tag("route", "items").gauge().value();
+    }
+
+    private double available() {
+        return meterRegistry.get("shareit.gateway.route.bulkhead.available").tag("route", "items").gauge().value();
+    }
+
+    private GuardedTransport transport(Duration openDuration) {
+        return new GuardedTransport((method, uri, headers, body) -> upstream.get(), properties(openDuration),
+                meterRegistry);
+    }
+
+    private static ResilienceProperties properties(Duration openDuration) {
+        ResilienceProperties.Route route = new ResilienceProperties.Route();
+        route.setMaxConcurrentCalls(2);
+        route.setFailureThreshold(2);
+        route.setOpenDuration(openDuration);
+        route.setHalfOpenCalls(1);
+        ResilienceProperties properties = new ResilienceProperties();
+        properties.setDefaults(route);
+        return properties;
+    }
+}
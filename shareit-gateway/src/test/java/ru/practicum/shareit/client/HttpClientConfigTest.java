@@ -0,0 +1,41 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+public class HttpClientConfigTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(HttpClientConfig.class)
+            .withPropertyValues("shareit-gateway.http-client.max-connections=20",
+                    "shareit-gateway.http-client.streaming.max-connections=3")
+            .withBean(StreamingFactoryHolder.class);
+
+    @Test
+    void streamsUseSeparatePool() {
+        contextRunner.run(context -> {
+            PoolingHttpClientConnectionManager shortCalls = context.getBean(PoolingHttpClientConnectionManager.class);
+            PoolingHttpClientConnectionManager streams = context.getBean("streamingConnectionManager",
+                    PoolingHttpClientConnectionManager.class);
+
+            Assertions.assertThat(streams).isNotSameAs(shortCalls);
+            Assertions.assertThat(shortCalls.getMaxTotal()).isEqualTo(20);
+            Assertions.assertThat(streams.getMaxTotal()).isEqualTo(3);
+            Assertions.assertThat(streams.getDefaultMaxPerRoute()).isEqualTo(3);
+            Assertions.assertThat(context.getBean(StreamingFactoryHolder.class).factory)
+                    .isSameAs(context.getBean("streamingRequestFactory"))
+                    .isNotSameAs(context.getBean(ClientHttpRequestFactory.class));
+        });
+    }
+
+    static class StreamingFactoryHolder {
+        private final ClientHttpRequestFactory factory;
+
+        StreamingFactoryHolder(@Qualifier(HttpClientConfig.STREAMING) ClientHttpRequestFactory factory) {
+            this.factory = factory;
+        }
+    }
+}
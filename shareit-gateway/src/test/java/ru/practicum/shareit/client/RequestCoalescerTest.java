@@ -0,0 +1,152 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RequestCoalescerTest {
+    private static final String KEY = "GET /items/1";
+    private static final String ROUTE = "items";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, Duration.ofSeconds(5), 2, 2);
+
+    @AfterEach
+    void shutdown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void concurrentCallersShareLeaderResponse() throws Exception {
+        CompletableFuture<ResponseEntity<byte[]>> upstream = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<ResponseEntity<byte[]>> leader = coalescer.execute(KEY, ROUTE,
+                () -> counted(calls, upstream), response -> true);
+        CompletableFuture<ResponseEntity<byte[]>> joined = coalescer.execute(KEY, ROUTE,
+                () -> counted(calls, upstream), response -> true);
+        upstream.complete(ok());
+
+        Assertions.assertThat(joined.get(1, TimeUnit.SECONDS)).isSameAs(leader.get(1, TimeUnit.SECONDS));
+        Assertions.assertThat(calls).hasValue(1);
+        Assertions.assertThat(meterRegistry.get("shareit.gateway.coalescing").tag("outcome", "joined")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void finishedCallIsNotShared() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+
+        coalescer.execute(KEY, ROUTE, () -> counted(calls, CompletableFuture.completedFuture(ok())),
+                response -> true).get(1, TimeUnit.SECONDS);
+        coalescer.execute(KEY, ROUTE, () -> counted(calls, CompletableFuture.completedFuture(ok())),
+                response -> true).get(1, TimeUnit.SECONDS);
+
+        Assertions.assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void leaderFailureReachesJoinedCallers() {
+        CompletableFuture<ResponseEntity<byte[]>> upstream = new CompletableFuture<>();
+        coalescer.execute(KEY, ROUTE, () -> upstream, response -> true);
+        CompletableFuture<ResponseEntity<byte[]>> joined = coalescer.execute(KEY, ROUTE,
+                () -> CompletableFuture.completedFuture(ok()), response -> true);
+
+        upstream.completeExceptionally(new IllegalStateException("boom"));
+
+        Assertions.assertThatThrownBy(() -> joined.get(1, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rejectedSharedResponseFallsBackToOwnCall() throws Exception {
+        CompletableFuture<ResponseEntity<byte[]>> upstream = new CompletableFuture<>();
+        ResponseEntity<byte[]> own = ok();
+        coalescer.execute(KEY, ROUTE, () -> upstream, response -> true);
+        CompletableFuture<ResponseEntity<byte[]>> joined = coalescer.execute(KEY, ROUTE,
+                () -> CompletableFuture.completedFuture(own),
+                response -> response.getStatusCode() == HttpStatus.OK);
+
+        upstream.complete(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+
+        Assertions.assertThat(joined.get(1, TimeUnit.SECONDS)).isSameAs(own);
+    }
+
+    @Test
+    void slowLeaderFallsBackAfterMaxWait() throws Exception {
+        coalescer.shutdown();
+        coalescer = new RequestCoalescer(meterRegistry, Duration.ofMillis(10), 2, 2);
+        ResponseEntity<byte[]> own = ok();
+        coalescer.execute(KEY, ROUTE, CompletableFuture::new, response -> true);
+
+        CompletableFuture<ResponseEntity<byte[]>> joined = coalescer.execute(KEY, ROUTE,
+                () -> CompletableFuture.completedFuture(own), response -> true);
+
+        Assertions.assertThat(joined.get(1, TimeUnit.SECONDS)).isSameAs(own);
+        Assertions.assertThat(meterRegistry.get("shareit.gateway.coalescing").tag("outcome", "timeout")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fullFallbackExecutorRejectsInsteadOfGrowing() throws Exception {
+        coalescer.shutdown();
+        coalescer = new RequestCoalescer(meterRegistry, Duration.ofMillis(10), 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        coalescer.execute(KEY, ROUTE, CompletableFuture::new, response -> true);
+
+        List<CompletableFuture<ResponseEntity<byte[]>>> joined = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            joined.add(coalescer.execute(KEY, ROUTE, () -> {
+                await(release);
+                return CompletableFuture.completedFuture(ok());
+            }, response -> true));
+        }
+        Assertions.assertThatThrownBy(() -> CompletableFuture.anyOf(joined.toArray(new CompletableFuture<?>[0]))
+                        .get(1, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(ServiceUnavailableException.class);
+        release.countDown();
+
+        int succeeded = 0;
+        for (CompletableFuture<ResponseEntity<byte[]>> future : joined) {
+            try {
+                future.get(1, TimeUnit.SECONDS);
+                succeeded++;
+            } catch (ExecutionException e) {
+                Assertions.assertThat(e).hasCauseInstanceOf(ServiceUnavailableException.class);
+            }
+        }
+        Assertions.assertThat(succeeded).isEqualTo(2);
+    }
+
+    private static CompletableFuture<ResponseEntity<byte[]>> counted(AtomicInteger calls,
+                                                                    CompletableFuture<ResponseEntity<byte[]>> result) {
+        calls.incrementAndGet();
+        return result;
+    }
+
+    private static ResponseEntity<byte[]> ok() {
+        return ResponseEntity.ok(new byte[0]);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
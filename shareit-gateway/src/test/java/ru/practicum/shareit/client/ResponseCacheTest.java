@@ -0,0 +1,144 @@
+package ru.practicum.shareit.client;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.constants.Request;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ResponseCacheTest {
+    private static final String KEY = "viewer /items/5";
+
+    private final ResponseCache cache = new ResponseCache(100, Duration.ofMinutes(1));
+
+    @Test
+    void storesPublicResponse() {
+        ResponseEntity<Object> response = ok("\"item-5-0\"");
+        cache.store(KEY, serverHeaders("public, max-age=30", 7L), response);
+
+        Assertions.assertThat(cache.find(KEY, 1L, null)).isSameAs(response);
+        Assertions.assertThat(cache.find(KEY, null, null)).isSameAs(response);
+    }
+
+    @Test
+    void skipsPrivateAndUncacheableResponses() {
+        cache.store(KEY, serverHeaders("no-cache, private", 7L), ok("\"a\""));
+        cache.store("viewer /items/6", serverHeaders("max-age=30", null), ok("\"b\""));
+        cache.store("viewer /items/7", serverHeaders("public, max-age=0", null), ok("\"c\""));
+        cache.store("viewer /items/8", serverHeaders("public, max-age=30", null),
+                ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+
+        Assertions.assertThat(cache.find(KEY, 1L, null)).isNull();
+        Assertions.assertThat(cache.find("viewer /items/6", 1L, null)).isNull();
+        Assertions.assertThat(cache.find("viewer /items/7", 1L, null)).isNull();
+        Assertions.assertThat(cache.find("viewer /items/8", 1L, null)).isNull();
+    }
+
+    @Test
+    void privateResponseDropsSharedEntry() {
+        cache.store(KEY, serverHeaders("public, max-age=30", 7L), ok("\"a\""));
+        cache.store(KEY, serverHeaders("no-store", 7L), ok("\"b\""));
+
+        Assertions.assertThat(cache.find(KEY, 1L, null)).isNull();
+    }
+
+    @Test
+    void ownerIsNeverServedSharedView() {
+        cache.store(KEY, serverHeaders("public, max-age=30", 7L), ok("\"a\""));
+
+        Assertions.assertThat(cache.find(KEY, 7L, null)).isNull();
+        Assertions.assertThat(cache.find(KEY, 8L, null)).isNotNull();
+    }
+
+    @Test
+    void matchingValidatorIsAnsweredWithNotModified() {
+        cache.store(KEY, serverHeaders("public, max-age=30", 7L), ok("\"item-5-3\""));
+
+        ResponseEntity<Object> response = cache.find(KEY, 1L, "\"item-5-2\", \"item-5-3\"");
+
+        Assertions.assertThat(response).isNotNull();
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        Assertions.assertThat(response.getHeaders().getETag()).isEqualTo("\"item-5-3\"");
+        Assertions.assertThat(cache.find(KEY, 1L, "\"item-5-2\"").getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void lifetimeIsCappedByGatewayTtl() throws InterruptedException {
+        ResponseCache shortLived = new ResponseCache(100, Duration.ofMillis(1));
+        shortLived.store(KEY, serverHeaders("public, max-age=30", null), ok("\"a\""));
+        Thread.sleep(5);
+
+        Assertions.assertThat(shortLived.find(KEY, 1L, null)).isNull();
+    }
+
+    @Test
+    void invalidatesByKeyAndPrefix() {
+        cache.store(KEY, serverHeaders("public, max-age=30", null), ok("\"a\""));
+        cache.store("viewer /items/search?text=a", serverHeaders("public, max-age=30", null), ok("\"b\""));
+        cache.store("viewer /items/search?text=b", serverHeaders("public, max-age=30", null), ok("\"c\""));
+
+        cache.invalidatePrefix("viewer /items/search?");
+        Assertions.assertThat(cache.find("viewer /items/search?text=a", 1L, null)).isNull();
+        Assertions.assertThat(cache.find("viewer /items/search?text=b", 1L, null)).isNull();
+        Assertions.assertThat(cache.find(KEY, 1L, null)).isNotNull();
+
+        cache.invalidate(KEY);
+        Assertions.assertThat(cache.find(KEY, 1L, null)).isNull();
+    }
+
+    @Test
+    void sizeIsBoundedUnderConcurrentWrites() throws Exception {
+        ResponseCache small = new ResponseCache(50, Duration.ofMinutes(1));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                int offset = thread * 1000;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        String key = "viewer /items/" + (offset + i);
+                        small.store(key, serverHeaders("public, max-age=30", null), ok("\"" + i + "\""));
+                        small.find(key, 1L, null);
+                        if (i % 100 == 0) {
+                            small.invalidatePrefix("viewer /items/" + offset);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int found = 0;
+        for (int i = 0; i < 8000; i++) {
+            if (small.find("viewer /items/" + i, 1L, null) != null) {
+                found++;
+            }
+        }
+        Assertions.assertThat(found).isLessThanOrEqualTo(50);
+    }
+
+    private static ResponseEntity<Object> ok(String etag) {
+        return ResponseEntity.ok().eTag(etag).body(new byte[]{'{', '}'});
+    }
+
+    private static HttpHeaders serverHeaders(String cacheControl, Long ownerId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(cacheControl);
+        if (ownerId != null) {
+            headers.set(Request.ITEM_OWNER, String.valueOf(ownerId));
+        }
+        return headers;
+    }
+}
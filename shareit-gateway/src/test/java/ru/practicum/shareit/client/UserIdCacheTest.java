@@ -0,0 +1,63 @@
+package ru.practicum.shareit.client;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class UserIdCacheTest {
+    private final UserIdCache cache = new UserIdCache(100, Duration.ofMinutes(10), Duration.ofMinutes(1));
+
+    @Test
+    void unknownUserIsNeitherKnownNorMissing() {
+        Assertions.assertThat(cache.isKnown(1L)).isFalse();
+        Assertions.assertThat(cache.isKnownMissing(1L)).isFalse();
+    }
+
+    @Test
+    void markKnownAndMissingReplaceEachOther() {
+        cache.markMissing(1L);
+        Assertions.assertThat(cache.isKnownMissing(1L)).isTrue();
+        Assertions.assertThat(cache.isKnown(1L)).isFalse();
+
+        cache.markKnown(1L);
+        Assertions.assertThat(cache.isKnownMissing(1L)).isFalse();
+        Assertions.assertThat(cache.isKnown(1L)).isTrue();
+
+        cache.markMissing(1L);
+        Assertions.assertThat(cache.isKnown(1L)).isFalse();
+    }
+
+    @Test
+    void entriesExpire() throws InterruptedException {
+        UserIdCache shortLived = new UserIdCache(100, Duration.ofMillis(1), Duration.ofMillis(1));
+        shortLived.markKnown(1L);
+        shortLived.markMissing(2L);
+        Thread.sleep(5);
+
+        Assertions.assertThat(shortLived.isKnown(1L)).isFalse();
+        Assertions.assertThat(shortLived.isKnownMissing(2L)).isFalse();
+    }
+
+    @Test
+    void invalidateMissingKeepsKnownUsers() {
+        cache.markKnown(1L);
+        cache.markMissing(2L);
+
+        cache.invalidateMissing();
+
+        Assertions.assertThat(cache.isKnown(1L)).isTrue();
+        Assertions.assertThat(cache.isKnownMissing(2L)).isFalse();
+    }
+
+    @Test
+    void sizeIsBounded() {
+        UserIdCache small = new UserIdCache(2, Duration.ofMinutes(10), Duration.ofMinutes(1));
+        small.markKnown(1L);
+        small.markKnown(2L);
+        small.markKnown(3L);
+
+        Assertions.assertThat(small.isKnown(1L)).isFalse();
+        Assertions.assertThat(small.isKnown(3L)).isTrue();
+    }
+}
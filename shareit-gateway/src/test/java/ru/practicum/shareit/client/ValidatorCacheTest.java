@@ -0,0 +1,97 @@
+package ru.practicum.shareit.client;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class ValidatorCacheTest {
+    private final ValidatorCache cache = new ValidatorCache(100, Duration.ofMinutes(1));
+
+    @Test
+    void findMatchingReturnsStoredTag() {
+        cache.put("1 /items/5", "/items/5", "\"item-5-0\"");
+
+        Assertions.assertThat(cache.findMatching("1 /items/5", "\"item-4-0\", \"item-5-0\"")).isEqualTo("\"item-5-0\"");
+        Assertions.assertThat(cache.findMatching("1 /items/5", "\"item-5-1\"")).isNull();
+        Assertions.assertThat(cache.findMatching("2 /items/5", "\"item-5-0\"")).isNull();
+    }
+
+    @Test
+    void expiredTagIsNotMatched() throws InterruptedException {
+        ValidatorCache shortLived = new ValidatorCache(100, Duration.ofMillis(1));
+        shortLived.put("1 /items/5", "/items/5", "\"item-5-0\"");
+        Thread.sleep(5);
+
+        Assertions.assertThat(shortLived.findMatching("1 /items/5", "\"item-5-0\"")).isNull();
+    }
+
+    @Test
+    void sizeIsBounded() {
+        ValidatorCache small = new ValidatorCache(2, Duration.ofMinutes(1));
+        small.put("1 /items/1", "/items/1", "\"a\"");
+        small.put("1 /items/2", "/items/2", "\"b\"");
+        small.put("1 /items/3", "/items/3", "\"c\"");
+
+        Assertions.assertThat(small.findMatching("1 /items/1", "\"a\"")).isNull();
+        Assertions.assertThat(small.findMatching("1 /items/3", "\"c\"")).isEqualTo("\"c\"");
+    }
+
+    @Test
+    void itemUpdateInvalidatesOnlyDependentViews() {
+        cache.put("1 /items/5", "/items/5", "\"i5\"");
+        cache.put("2 /items/5", "/items/5", "\"i5\"");
+        cache.put("1 /items/55", "/items/55", "\"i55\"");
+        cache.put("1 /requests/3", "/requests/3", "\"r3\"");
+        cache.put("1 /bookings/7", "/bookings/7", "\"b7\"");
+
+        cache.invalidateAfterWrite("/items/5");
+
+        Assertions.assertThat(cache.findMatching("1 /items/5", "\"i5\"")).isNull();
+        Assertions.assertThat(cache.findMatching("2 /items/5", "\"i5\"")).isNull();
+        Assertions.assertThat(cache.findMatching("1 /requests/3", "\"r3\"")).isNull();
+        Assertions.assertThat(cache.findMatching("1 /bookings/7", "\"b7\"")).isNull();
+        Assertions.assertThat(cache.findMatching("1 /items/55", "\"i55\"")).isEqualTo("\"i55\"");
+    }
+
+    @Test
+    void commentInvalidatesOnlyCommentedItem() {
+        cache.put("1 /items/5", "/items/5", "\"i5\"");
+        cache.put("1 /items/6", "/items/6", "\"i6\"");
+        cache.put("1 /bookings/7", "/bookings/7", "\"b7\"");
+
+        cache.invalidateAfterWrite("/items/5/comment");
+
+        Assertions.assertThat(cache.findMatching("1 /items/5", "\"i5\"")).isNull();
+        Assertions.assertThat(cache.findMatching("1 /items/6", "\"i6\"")).isEqualTo("\"i6\"");
+        Assertions.assertThat(cache.findMatching("1 /bookings/7", "\"b7\"")).isEqualTo("\"b7\"");
+    }
+
+    @Test
+    void bookingDecisionInvalidatesBookingAndItemViews() {
+        cache.put("1 /items/5", "/items/5", "\"i5\"");
+        cache.put("1 /bookings/7", "/bookings/7", "\"b7\"");
+        cache.put("1 /bookings/8", "/bookings/8", "\"b8\"");
+        cache.put("1 /requests/3", "/requests/3", "\"r3\"");
+
+        cache.invalidateAfterWrite("/bookings/7");
+
+        Assertions.assertThat(cache.findMatching("1 /items/5", "\"i5\"")).isNull();
+        Assertions.assertThat(cache.findMatching("1 /bookings/7", "\"b7\"")).isNull();
+        Assertions.assertThat(cache.findMatching("1 /bookings/8", "\"b8\"")).isEqualTo("\"b8\"");
+        Assertions.assertThat(cache.findMatching("1 /requests/3", "\"r3\"")).isEqualTo("\"r3\"");
+    }
+
+    @Test
+    void userUpdateInvalidatesEverything() {
+        cache.put("1 /items/5", "/items/5", "\"i5\"");
+        cache.put("1 /requests/3", "/requests/3", "\"r3\"");
+
+        cache.invalidateAfterWrite("/users");
+        Assertions.assertThat(cache.findMatching("1 /items/5", "\"i5\"")).isEqualTo("\"i5\"");
+
+        cache.invalidateAfterWrite("/users/1");
+        Assertions.assertThat(cache.findMatching("1 /items/5", "\"i5\"")).isNull();
+        Assertions.assertThat(cache.findMatching("1 /requests/3", "\"r3\"")).isNull();
+    }
+}
@@ -4,18 +4,34 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import ru.practicum.shareit.client.UserIdCache;
 import ru.practicum.shareit.constants.Request;
 
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
+@Import(UserIdCache.class)
 public class ItemControllerTest {
     private static final String URL = "http://localhost:8080/items";
 
@@ -175,4 +191,67 @@ public class ItemControllerTest {
                         status().isOk()
                 );
     }
+
+    @Test
+    void findItemByIdForwardsEntityTag() throws Exception {
+        when(client.findItemById(1L, 2L, "\"item-2-0\""))
+                .thenReturn(CompletableFuture.completedFuture(
+                        ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("item-2-0").build()));
+
+        MvcResult result = mockMvc.perform(get(URL + "/2")
+                        .header(Request.USER_ID, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"item-2-0\""))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpectAll(
+                        status().isNotModified(),
+                        header().string(HttpHeaders.ETAG, "\"item-2-0\"")
+                );
+
+        mockMvc.perform(get(URL + "/2")
+                        .header(Request.USER_ID, 1L))
+                .andExpect(status().isOk());
+
+        verify(client, times(1)).findItemById(1L, 2L, null);
+    }
+
+    @Test
+    void findPopularWithWrongWindow() throws Exception {
+        mockMvc.perform(get(URL + "/popular")
+                        .param("window", "week"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get(URL + "/popular")
+                        .param("window", "30d")
+                        .param("size", "5"))
+                .andExpect(status().isOk());
+
+        verify(client, times(1)).findPopular("30d", 5);
+    }
+
+    @Test
+    void importItemsIsRelayedToServer() throws Exception {
+        mockMvc.perform(post(URL + "/import")
+                        .header(Request.USER_ID, 1L)
+                        .contentType(Request.TEXT_CSV)
+                        .content("name,description,available\ntable,black,true\n"))
+                .andExpect(status().isOk());
+
+        verify(client, times(1))
+                .importItems(eq(1L), eq(MediaType.valueOf(Request.TEXT_CSV)), any(), any());
+    }
+
+    @Test
+    void importItemsWithUnsupportedFormat() throws Exception {
+        mockMvc.perform(post(URL + "/import")
+                        .header(Request.USER_ID, 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verify(client, times(0))
+                .importItems(any(), any(), any(), any());
+    }
 }
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import ru.practicum.shareit.client.UserIdCache;
+import ru.practicum.shareit.constants.Request;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.UserController;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = UserController.class)
+@Import(UserIdCache.class)
+@TestPropertySource(properties = {
+        "shareit-gateway.rate-limit.groups.writes.rate=0.1",
+        "shareit-gateway.rate-limit.groups.writes.burst=1"
+})
+public class RateLimitTest {
+    private static final String URL = "http://localhost:8080/users";
+    private static final String USER = "{\"name\": \"Nick\", \"email\": \"nick@mail.ru\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private UserIdCache userIds;
+
+    @MockBean
+    private UserClient client;
+
+    @Test
+    void writesOverLimitAreRejected() throws Exception {
+        userIds.markKnown(1L);
+        userIds.markKnown(2L);
+        mockMvc.perform(post(URL)
+                        .header(Request.USER_ID, 1L)
+                        .content(USER)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post(URL)
+                        .header(Request.USER_ID, 1L)
+                        .content(USER)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpectAll(
+                        status().isTooManyRequests(),
+                        header().string(HttpHeaders.RETRY_AFTER, "10"),
+                        MockMvcResultMatchers.jsonPath("$['Слишком много запросов']").exists()
+                );
+
+        mockMvc.perform(post(URL)
+                        .header(Request.USER_ID, 2L)
+                        .content(USER)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(URL + "/1")
+                        .header(Request.USER_ID, 1L))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void unverifiedUsersShareAddressLimit() throws Exception {
+        mockMvc.perform(post(URL)
+                        .header(Request.USER_ID, 101L)
+                        .with(remoteAddr("10.0.0.7"))
+                        .content(USER)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post(URL)
+                        .header(Request.USER_ID, 102L)
+                        .with(remoteAddr("10.0.0.7"))
+                        .content(USER)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(post(URL)
+                        .header(Request.USER_ID, "not-a-number")
+                        .with(remoteAddr("10.0.0.7"))
+                        .content(USER)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void fullBucketTableFallsBackToAddressBucket() {
+        RateLimiter limiter = limiter(2);
+
+        Assertions.assertThat(limiter.tryAcquire(RouteGroup.WRITES, "ip 10.0.0.1", "ip 10.0.0.1")).isZero();
+        Assertions.assertThat(limiter.tryAcquire(RouteGroup.WRITES, "user 1", "ip 10.0.0.2")).isZero();
+
+        Assertions.assertThat(limiter.tryAcquire(RouteGroup.WRITES, "user 2", "ip 10.0.0.1")).isPositive();
+        Assertions.assertThat(limiter.tryAcquire(RouteGroup.WRITES, "user 3", "ip 10.0.0.1")).isPositive();
+    }
+
+    @Test
+    void fullBucketTableNeverLetsNewClientsThrough() {
+        RateLimiter limiter = limiter(1);
+        Assertions.assertThat(limiter.tryAcquire(RouteGroup.WRITES, "user 1", "ip 10.0.0.1")).isZero();
+
+        Assertions.assertThat(limiter.tryAcquire(RouteGroup.WRITES, "user 2", "ip 10.0.0.2")).isZero();
+        for (int i = 3; i < 10; i++) {
+            Assertions.assertThat(limiter.tryAcquire(RouteGroup.WRITES, "user " + i, "ip 10.0.0." + i))
+                    .isPositive();
+        }
+        Assertions.assertThat(limiter.tryAcquire(RouteGroup.WRITES, "user 1", "ip 10.0.0.1")).isPositive();
+    }
+
+    @Test
+    void limitsChangeAtRuntime() {
+        rateLimiter.updateLimit(RouteGroup.SEARCH, new RateLimitProperties.Limit(1, 1));
+
+        Assertions.assertThat(rateLimiter.tryAcquire(RouteGroup.SEARCH, "ip 10.0.0.1")).isZero();
+        Assertions.assertThat(rateLimiter.tryAcquire(RouteGroup.SEARCH, "ip 10.0.0.1"))
+                .isPositive();
+    }
+
+    private static RateLimiter limiter(int maxBuckets) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxBuckets(maxBuckets);
+        properties.getGroups().put(RouteGroup.WRITES, new RateLimitProperties.Limit(0.1, 1));
+        return new RateLimiter(properties);
+    }
+
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
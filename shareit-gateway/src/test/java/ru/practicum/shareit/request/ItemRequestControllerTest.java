@@ -4,18 +4,24 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import ru.practicum.shareit.client.UserIdCache;
 import ru.practicum.shareit.constants.Request;
+import ru.practicum.shareit.exception.UserNotFoundException;
 
 import java.nio.charset.StandardCharsets;
 
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemRequestController.class)
+@Import(UserIdCache.class)
 public class ItemRequestControllerTest {
     private static final String URL = "http://localhost:8080/requests";
 
@@ -72,4 +78,35 @@ public class ItemRequestControllerTest {
                                         "   }")
                 );
     }
+
+    @Test
+    void findFeedWithWrongSize() throws Exception {
+        mockMvc.perform(get(URL + "/feed")
+                        .header(Request.USER_ID, 1L)
+                        .param("size", "101"))
+                .andExpectAll(
+                        status().isBadRequest(),
+                        MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON),
+                        MockMvcResultMatchers.content().json(
+                                "{" +
+                                        "      \"Некорректное значение\":\"findFeed.size: must be less than or equal to 100\"" +
+                                        "   }")
+                );
+    }
+
+    @Test
+    void findAllWithRepliesForUnknownUser() throws Exception {
+        when(client.findAllWithReplies(anyLong()))
+                .thenThrow(new UserNotFoundException("Пользователь с запрашиваемым айди не зарегистрирован."));
+
+        mockMvc.perform(get(URL)
+                        .header(Request.USER_ID, 100L))
+                .andExpectAll(
+                        status().isNotFound(),
+                        MockMvcResultMatchers.content().json(
+                                "{" +
+                                        "      \"Объект не найден\":\"Пользователь с запрашиваемым айди не зарегистрирован.\"" +
+                                        "   }")
+                );
+    }
 }
@@ -5,17 +5,32 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import ru.practicum.shareit.client.UserIdCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
+@Import(UserIdCache.class)
 public class UserControllerTest {
     private static final String URL = "http://localhost:8080/users";
 
@@ -84,4 +99,48 @@ public class UserControllerTest {
                                         "   }")
                 );
     }
+
+    @Test
+    void findAllWithoutPagingStreamsEveryUser() throws Exception {
+        mockMvc.perform(get(URL))
+                .andExpect(status().isOk());
+
+        verify(client, times(1)).streamUsers(any());
+        verify(client, never()).findUsers(anyInt(), anyInt());
+    }
+
+    @Test
+    void findAllWithWrongSize() throws Exception {
+        mockMvc.perform(get(URL)
+                        .param("size", "1001"))
+                .andExpectAll(
+                        status().isBadRequest(),
+                        MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON),
+                        MockMvcResultMatchers.content().json(
+                                "{" +
+                                        "      \"Некорректное значение\":\"findAll.size: must be less than or equal to 1000\"" +
+                                        "   }")
+                );
+    }
+
+    @Test
+    void findUserByIdRelaysServerBytes() throws Exception {
+        String body = "{\"id\":1,\"name\":\"Nick\",\"email\":\"nick@mail.ru\"}";
+        when(client.findUserById(1L)).thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag("\"1\"")
+                .body(body.getBytes(StandardCharsets.UTF_8))));
+
+        MvcResult result = mockMvc.perform(get(URL + "/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpectAll(
+                        status().isOk(),
+                        MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON),
+                        MockMvcResultMatchers.header().string("ETag", "\"1\""),
+                        MockMvcResultMatchers.content().string(body)
+                );
+    }
 }
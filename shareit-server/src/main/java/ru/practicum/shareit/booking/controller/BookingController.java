@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.booking.State;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
@@ -32,7 +33,10 @@ public class BookingController {
 
     @GetMapping("/{bookingId}")
     public BookingOutputDto findBookingById(@RequestHeader(Request.USER_ID) Long userId,
-                                            @PathVariable Long bookingId) {
+                                            @PathVariable Long bookingId, WebRequest request) {
+        if (request.checkNotModified(bookingService.findBookingTag(userId, bookingId))) {
+            return null;
+        }
         return bookingService.findBookingById(userId, bookingId);
     }
 
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.dao;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
@@ -33,7 +34,8 @@ public interface BookingDao extends JpaRepository<Booking, Long> {
     List<Booking> findByItemOwnerIdAndEndIsAfterAndStartIsBeforeOrderByStartDesc(Long bookerId, LocalDateTime start,
                                                                                  LocalDateTime end, Pageable page);
 
-    Booking findTopByStatusNotLikeAndBookerIdAndItemIdOrderByEndAsc(BookingStatus status, Long authorId, Long itemId);
+    @Query("select min(b.end) from Booking b where b.booker.id = ?1 and b.item.id = ?2 and b.status <> ?3")
+    LocalDateTime findEarliestEnd(Long bookerId, Long itemId, BookingStatus excludedStatus);
 
     List<Booking> findByItemIdAndItemOwnerIdAndStartIsAfterAndStatusIsNot(Long itemId, Long userId, LocalDateTime start,
                                                                     BookingStatus status, Pageable page);
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BookingCreatedEvent {
+    private final Long bookingId;
+
+    private final Long itemId;
+
+    private final Long bookerId;
+
+    private final LocalDateTime start;
+
+    private final LocalDateTime end;
+}
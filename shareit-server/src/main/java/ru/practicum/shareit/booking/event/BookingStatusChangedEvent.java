@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.BookingStatus;
+
+@Getter
+@AllArgsConstructor
+public class BookingStatusChangedEvent {
+    private final Long bookingId;
+
+    private final Long itemId;
+
+    private final Long bookerId;
+
+    private final BookingStatus status;
+}
@@ -24,7 +24,8 @@ public class BookingMapper {
                 dto.getStart(),
                 dto.getEnd(),
                 booker,
-                dto.getStatus()
+                dto.getStatus(),
+                null
         );
     }
 
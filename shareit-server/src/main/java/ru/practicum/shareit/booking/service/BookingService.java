@@ -13,6 +13,8 @@ public interface BookingService {
 
     BookingOutputDto findBookingById(Long userId, Long bookingId);
 
+    String findBookingTag(Long userId, Long bookingId);
+
     List<BookingOutputDto> findAllUsersBooking(Long userId, State state, int from, int size);
 
     List<BookingOutputDto> findAllBookingsForItems(Long userId, State state, int from, int size);
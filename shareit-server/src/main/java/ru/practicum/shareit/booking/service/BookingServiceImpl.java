@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -11,6 +12,8 @@ import ru.practicum.shareit.booking.State;
 import ru.practicum.shareit.booking.dao.BookingDao;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.event.BookingCreatedEvent;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.NotAccessException;
@@ -19,6 +22,7 @@ import ru.practicum.shareit.exception.NotValidParameterException;
 import ru.practicum.shareit.item.dao.ItemDao;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dao.UserDao;
+import ru.practicum.shareit.user.service.UserExistenceService;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -26,7 +30,6 @@ import java.util.List;
 
 import static ru.practicum.shareit.item.service.ItemService.checkItemAccess;
 import static ru.practicum.shareit.item.service.ItemService.checkItemAvailability;
-import static ru.practicum.shareit.user.service.UserServiceImpl.checkUserAvailability;
 
 @Service
 @Slf4j
@@ -35,13 +38,15 @@ import static ru.practicum.shareit.user.service.UserServiceImpl.checkUserAvailab
 public class BookingServiceImpl implements BookingService {
     private final BookingDao bookingDao;
     private final UserDao userDao;
+    private final UserExistenceService userExistence;
     private final ItemDao itemDao;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     @Override
     public BookingOutputDto createBooking(BookingDto dto, Long userId) {
         Long itemId = dto.getItemId();
-        checkUserAvailability(userDao, userId);
+        userExistence.checkUserAvailability(userId);
 
         Item item = itemDao.findById(itemId).orElseThrow(() ->
                 new NotFoundException("Вещь с указанным айди не найдена."));
@@ -52,14 +57,16 @@ public class BookingServiceImpl implements BookingService {
             throw new NotFoundException("Владелец вещи не может её забронировать.");
         }
         dto.setStatus(BookingStatus.WAITING);
-        Booking booking = BookingMapper.toBooking(dto, item, userDao.getReferenceById(userId));
-        return BookingMapper.doBookingOutputDto(bookingDao.save(booking));
+        Booking booking = bookingDao.save(BookingMapper.toBooking(dto, item, userDao.getReferenceById(userId)));
+        eventPublisher.publishEvent(new BookingCreatedEvent(booking.getId(), itemId, userId, booking.getStart(),
+                booking.getEnd()));
+        return BookingMapper.doBookingOutputDto(booking);
     }
 
     @Transactional
     @Override
     public BookingOutputDto confirmBookingByOwner(Long userId, Long bookingId, boolean approved) {
-        checkUserAvailability(userDao, userId);
+        userExistence.checkUserAvailability(userId);
         Booking booking = bookingDao.findById(bookingId).orElseThrow(() ->
                 new NotFoundException("Бронирование с указанным айди не найдено."));
         Long itemId = booking.getItem().getId();
@@ -78,28 +85,30 @@ public class BookingServiceImpl implements BookingService {
         } else {
             booking.setStatus(BookingStatus.REJECTED);
         }
-        return BookingMapper.doBookingOutputDto(bookingDao.save(booking));
+        Booking savedBooking = bookingDao.save(booking);
+        eventPublisher.publishEvent(new BookingStatusChangedEvent(savedBooking.getId(), itemId,
+                savedBooking.getBooker().getId(), savedBooking.getStatus()));
+        return BookingMapper.doBookingOutputDto(savedBooking);
     }
 
     @Override
     @Transactional(readOnly = true)
     public BookingOutputDto findBookingById(Long userId, Long bookingId) {
-        Booking booking = bookingDao.findById(bookingId).orElseThrow(() ->
-                new NotFoundException("Бронирование с указанным айди не найдено."));
+        return BookingMapper.doBookingOutputDto(findAccessibleBooking(userId, bookingId));
+    }
 
-        Long ownerId = booking.getItem().getOwner().getId();
-        Long bookerId = booking.getBooker().getId();
-        boolean checkOwnerOrBooker = ownerId.equals(userId) || bookerId.equals(userId);
-        if (!checkOwnerOrBooker) {
-            throw new NotAccessException("Получение данных доступно либо автору бронирования, либо владельцу вещи");
-        }
-        return BookingMapper.doBookingOutputDto(booking);
+    @Override
+    @Transactional(readOnly = true)
+    public String findBookingTag(Long userId, Long bookingId) {
+        Booking booking = findAccessibleBooking(userId, bookingId);
+        return String.format("booking-%d-%d-%d-%d", bookingId, booking.getVersion(),
+                booking.getItem().getVersion(), booking.getBooker().getVersion());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<BookingOutputDto> findAllUsersBooking(Long userId, State state, int from, int size) {
-        checkUserAvailability(userDao, userId);
+        userExistence.checkUserAvailability(userId);
         LocalDateTime start = LocalDateTime.now();
         List<Booking> bookings = new ArrayList<>();
 
@@ -131,7 +140,7 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingOutputDto> findAllBookingsForItems(Long userId, State state, int from, int size) {
-        checkUserAvailability(userDao, userId);
+        userExistence.checkUserAvailability(userId);
         if (itemDao.findItemsByOwnerId(userId).isEmpty()) {
             throw new NotFoundException("У пользователя нет вещей.");
         }
@@ -163,4 +172,17 @@ public class BookingServiceImpl implements BookingService {
         }
         return BookingMapper.makeBookingsOutputList(bookings);
     }
+
+    private Booking findAccessibleBooking(Long userId, Long bookingId) {
+        Booking booking = bookingDao.findById(bookingId).orElseThrow(() ->
+                new NotFoundException("Бронирование с указанным айди не найдено."));
+
+        Long ownerId = booking.getItem().getOwner().getId();
+        Long bookerId = booking.getBooker().getId();
+        boolean checkOwnerOrBooker = ownerId.equals(userId) || bookerId.equals(userId);
+        if (!checkOwnerOrBooker) {
+            throw new NotAccessException("Получение данных доступно либо автору бронирования, либо владельцу вещи");
+        }
+        return booking;
+    }
 }
@@ -5,4 +5,12 @@ import lombok.experimental.UtilityClass;
 @UtilityClass
 public class Request {
     public static final String USER_ID = "X-Sharer-User-Id";
+
+    public static final String TEXT_CSV = "text/csv";
+
+    public static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    public static final String UNKNOWN_USER = "X-Sharer-User-Unknown";
+
+    public static final String ITEM_OWNER = "X-Sharer-Item-Owner";
 }
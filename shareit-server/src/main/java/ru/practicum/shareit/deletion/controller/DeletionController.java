@@ -0,0 +1,21 @@
+package ru.practicum.shareit.deletion.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.deletion.dto.DeletionTaskDto;
+import ru.practicum.shareit.deletion.service.DeletionService;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/deletions")
+public class DeletionController {
+    private final DeletionService deletionService;
+
+    @GetMapping("/{taskId}")
+    public DeletionTaskDto findTask(@PathVariable long taskId) {
+        return deletionService.findTask(taskId);
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.deletion.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.deletion.model.DeletionTask;
+
+@Repository
+public interface DeletionTaskDao extends JpaRepository<DeletionTask, Long> {
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.deletion.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import ru.practicum.shareit.deletion.model.DeletionStatus;
+import ru.practicum.shareit.deletion.model.DeletionTarget;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DeletionTaskDto {
+    private Long id;
+
+    private DeletionTarget target;
+
+    private Long entityId;
+
+    private DeletionStatus status;
+
+    private long removed;
+
+    private String error;
+
+    private LocalDateTime created;
+
+    private LocalDateTime updated;
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.deletion.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class UserDeletionScheduledEvent {
+    private final Long userId;
+
+    private final List<Long> requestIds;
+}
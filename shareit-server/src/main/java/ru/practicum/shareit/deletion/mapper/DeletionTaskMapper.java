@@ -0,0 +1,19 @@
+package ru.practicum.shareit.deletion.mapper;
+
+import ru.practicum.shareit.deletion.dto.DeletionTaskDto;
+import ru.practicum.shareit.deletion.model.DeletionTask;
+
+public class DeletionTaskMapper {
+    public static DeletionTaskDto toDeletionTaskDto(DeletionTask task) {
+        return new DeletionTaskDto(
+                task.getId(),
+                task.getTarget(),
+                task.getEntityId(),
+                task.getStatus(),
+                task.getRemoved(),
+                task.getError(),
+                task.getCreated(),
+                task.getUpdated()
+        );
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.deletion.model;
+
+public enum DeletionStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.deletion.model;
+
+public enum DeletionTarget {
+    USER,
+    ITEM
+}
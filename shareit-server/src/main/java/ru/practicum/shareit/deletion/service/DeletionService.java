@@ -0,0 +1,13 @@
+package ru.practicum.shareit.deletion.service;
+
+import ru.practicum.shareit.deletion.dto.DeletionTaskDto;
+
+public interface DeletionService {
+    DeletionTaskDto scheduleUserDeletion(long userId);
+
+    DeletionTaskDto scheduleItemDeletion(long itemId);
+
+    DeletionTaskDto findTask(long taskId);
+
+    void processPending();
+}
@@ -0,0 +1,325 @@
+package ru.practicum.shareit.deletion.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.deletion.dao.DeletionTaskDao;
+import ru.practicum.shareit.deletion.dto.DeletionTaskDto;
+import ru.practicum.shareit.deletion.event.UserDeletionScheduledEvent;
+import ru.practicum.shareit.deletion.mapper.DeletionTaskMapper;
+import ru.practicum.shareit.deletion.model.DeletionStatus;
+import ru.practicum.shareit.deletion.model.DeletionTarget;
+import ru.practicum.shareit.deletion.model.DeletionTask;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.event.ItemRequestRepliesChangedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceService;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class DeletionServiceImpl implements DeletionService {
+    private static final String MARK_USER = "UPDATE users SET deleted = TRUE, user_email = NULL, " +
+            "version = version + 1 WHERE user_id = ? AND deleted = FALSE";
+    private static final String MARK_USER_ITEMS = "UPDATE items SET deleted = TRUE, version = version + 1 " +
+            "WHERE owner_id = ? AND deleted = FALSE";
+    private static final String MARK_ITEM = "UPDATE items SET deleted = TRUE, version = version + 1 " +
+            "WHERE item_id = ? AND deleted = FALSE";
+    private static final String SELECT_USER_REQUESTS = "SELECT request_id FROM requests WHERE requester_id = ?";
+    private static final String SELECT_ANSWERED_BY_USER = "SELECT DISTINCT request_id FROM items " +
+            "WHERE owner_id = ? AND deleted = FALSE AND request_id IS NOT NULL";
+    private static final String SELECT_ANSWERED_BY_ITEM = "SELECT request_id FROM items " +
+            "WHERE item_id = ? AND deleted = FALSE AND request_id IS NOT NULL";
+    private static final String SELECT_RUNNABLE = "SELECT task_id, target, entity_id, attempts FROM deletion_tasks " +
+            "WHERE status = 'PENDING' OR (status = 'RUNNING' AND updated < ?) ORDER BY task_id LIMIT 1";
+    private static final String CLAIM_TASK = "UPDATE deletion_tasks SET status = 'RUNNING', " +
+            "attempts = attempts + 1, updated = ? " +
+            "WHERE task_id = ? AND (status = 'PENDING' OR (status = 'RUNNING' AND updated < ?))";
+    private static final String RECORD_PROGRESS = "UPDATE deletion_tasks SET removed = removed + ?, updated = ? " +
+            "WHERE task_id = ?";
+    private static final String FINISH_TASK = "UPDATE deletion_tasks SET status = ?, error = ?, updated = ? " +
+            "WHERE task_id = ?";
+
+    private static final List<Step> USER_STEPS = List.of(
+            Step.chunked("DELETE FROM comments WHERE comment_id IN (SELECT comment_id FROM comments " +
+                    "WHERE author_id = ? LIMIT ?)"),
+            Step.chunked("DELETE FROM comments WHERE comment_id IN (SELECT c.comment_id FROM comments c " +
+                    "JOIN items i ON i.item_id = c.item_id WHERE i.owner_id = ? LIMIT ?)"),
+            Step.chunked("DELETE FROM bookings WHERE booking_id IN (SELECT booking_id FROM bookings " +
+                    "WHERE booker_id = ? LIMIT ?)"),
+            Step.chunked("DELETE FROM bookings WHERE booking_id IN (SELECT b.booking_id FROM bookings b " +
+                    "JOIN items i ON i.item_id = b.item_id WHERE i.owner_id = ? LIMIT ?)"),
+            Step.chunked("UPDATE items SET request_id = NULL, version = version + 1 WHERE item_id IN " +
+                    "(SELECT i.item_id FROM items i JOIN requests r ON r.request_id = i.request_id " +
+                    "WHERE r.requester_id = ? LIMIT ?)"),
+            Step.chunked("DELETE FROM items WHERE item_id IN (SELECT item_id FROM items WHERE owner_id = ? LIMIT ?)"),
+            Step.chunked("DELETE FROM requests WHERE request_id IN (SELECT request_id FROM requests " +
+                    "WHERE requester_id = ? LIMIT ?)"),
+            Step.single("DELETE FROM users WHERE user_id = ?")
+    );
+    private static final List<Step> ITEM_STEPS = List.of(
+            Step.chunked("DELETE FROM comments WHERE comment_id IN (SELECT comment_id FROM comments " +
+                    "WHERE item_id = ? LIMIT ?)"),
+            Step.chunked("DELETE FROM bookings WHERE booking_id IN (SELECT booking_id FROM bookings " +
+                    "WHERE item_id = ? LIMIT ?)"),
+            Step.single("DELETE FROM items WHERE item_id = ?")
+    );
+
+    private final DeletionTaskDao taskDao;
+    private final UserExistenceService userExistence;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final Duration pause;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration pollInterval;
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory("deletion-worker-"));
+
+    public DeletionServiceImpl(DeletionTaskDao taskDao, UserExistenceService userExistence, JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate, EntityManagerFactory entityManagerFactory,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${shareit.deletion.chunk-size:500}") int chunkSize,
+                               @Value("${shareit.deletion.pause:PT0.1S}") Duration pause,
+                               @Value("${shareit.deletion.lease:PT5M}") Duration lease,
+                               @Value("${shareit.deletion.max-attempts:3}") int maxAttempts,
+                               @Value("${shareit.deletion.poll-interval:PT5S}") Duration pollInterval) {
+        this.taskDao = taskDao;
+        this.userExistence = userExistence;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.pause = pause;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Удаление идёт порциями с паузами и может занять минуты, поэтому у него свой поток:
+     * общий поток планировщика Spring нужен остальным периодическим задачам.
+     */
+    @PostConstruct
+    public void start() {
+        worker.scheduleWithFixedDelay(this::poll, pollInterval.toMillis(), pollInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    @Override
+    @Transactional
+    public DeletionTaskDto scheduleUserDeletion(long userId) {
+        userExistence.checkUserAvailability(userId);
+        List<Long> requestIds = jdbcTemplate.queryForList(SELECT_USER_REQUESTS, Long.class, userId);
+        List<Long> answeredIds = jdbcTemplate.queryForList(SELECT_ANSWERED_BY_USER, Long.class, userId);
+        if (jdbcTemplate.update(MARK_USER, userId) == 0) {
+            throw new NotFoundException("Пользователь не найден.");
+        }
+        int items = jdbcTemplate.update(MARK_USER_ITEMS, userId);
+        userExistence.evictUser(userId);
+        evictNowAndAfterCommit(() -> {
+            entityManagerFactory.getCache().evict(User.class, userId);
+            entityManagerFactory.getCache().evict(Item.class);
+            entityManagerFactory.getCache().evict(ItemRequest.class);
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        });
+        eventPublisher.publishEvent(new UserDeletionScheduledEvent(userId, requestIds));
+        eventPublisher.publishEvent(new ItemRequestRepliesChangedEvent(answeredIds));
+        log.info("Пользователь с айди {} и его вещи ({}) помечены на удаление.", userId, items);
+        return schedule(DeletionTarget.USER, userId);
+    }
+
+    @Override
+    @Transactional
+    public DeletionTaskDto scheduleItemDeletion(long itemId) {
+        List<Long> answeredIds = jdbcTemplate.queryForList(SELECT_ANSWERED_BY_ITEM, Long.class, itemId);
+        if (jdbcTemplate.update(MARK_ITEM, itemId) == 0) {
+            throw new NotFoundException("Вещь не найдена.");
+        }
+        eventPublisher.publishEvent(new ItemRequestRepliesChangedEvent(answeredIds));
+        evictNowAndAfterCommit(() -> {
+            entityManagerFactory.getCache().evict(Item.class, itemId);
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        });
+        log.info("Вещь с айди {} помечена на удаление.", itemId);
+        return schedule(DeletionTarget.ITEM, itemId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DeletionTaskDto findTask(long taskId) {
+        DeletionTask task = taskDao.findById(taskId)
+                .orElseThrow(() -> new NotFoundException("Задача удаления не найдена."));
+        return DeletionTaskMapper.toDeletionTaskDto(task);
+    }
+
+    @Override
+    public void processPending() {
+        Claim claim;
+        while ((claim = claimNext()) != null) {
+            run(claim);
+        }
+    }
+
+    private void poll() {
+        try {
+            processPending();
+        } catch (RuntimeException e) {
+            log.error("Ошибка обработки очереди удаления: {}", e.getMessage());
+        }
+    }
+
+    private DeletionTaskDto schedule(DeletionTarget target, long entityId) {
+        LocalDateTime now = LocalDateTime.now();
+        DeletionTask task = taskDao.save(DeletionTask.builder()
+                .target(target)
+                .entityId(entityId)
+                .status(DeletionStatus.PENDING)
+                .created(now)
+                .updated(now)
+                .build());
+        return DeletionTaskMapper.toDeletionTaskDto(task);
+    }
+
+    private Claim claimNext() {
+        while (true) {
+            LocalDateTime staleBefore = LocalDateTime.now().minus(lease);
+            List<Claim> candidates = jdbcTemplate.query(SELECT_RUNNABLE, (rs, rowNum) -> new Claim(
+                    rs.getLong("task_id"), DeletionTarget.valueOf(rs.getString("target")),
+                    rs.getLong("entity_id"), rs.getInt("attempts") + 1), staleBefore);
+            if (candidates.isEmpty()) {
+                return null;
+            }
+            Claim candidate = candidates.get(0);
+            if (jdbcTemplate.update(CLAIM_TASK, LocalDateTime.now(), candidate.getTaskId(), staleBefore) == 1) {
+                return candidate;
+            }
+        }
+    }
+
+    private void run(Claim claim) {
+        List<Step> steps = claim.getTarget() == DeletionTarget.USER ? USER_STEPS : ITEM_STEPS;
+        try {
+            long removed = 0;
+            for (Step step : steps) {
+                removed += execute(claim, step);
+            }
+            finish(claim.getTaskId(), DeletionStatus.COMPLETED, null);
+            entityManagerFactory.getCache().evict(Item.class);
+            entityManagerFactory.getCache().evict(ItemRequest.class);
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+            log.info("Задача удаления {} завершена, удалено строк: {}.", claim.getTaskId(), removed);
+        } catch (DataAccessException e) {
+            DeletionStatus status = claim.getAttempt() >= maxAttempts ? DeletionStatus.FAILED : DeletionStatus.PENDING;
+            finish(claim.getTaskId(), status, e.getMostSpecificCause().getMessage());
+            log.error("Задача удаления {} прервана на попытке {}: {}", claim.getTaskId(), claim.getAttempt(),
+                    e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Задача удаления {} приостановлена.", claim.getTaskId());
+        }
+    }
+
+    private long execute(Claim claim, Step step) throws InterruptedException {
+        long removed = 0;
+        while (true) {
+            int affected = transactionTemplate.execute(status -> {
+                int rows = step.isChunked()
+                        ? jdbcTemplate.update(step.getSql(), claim.getEntityId(), chunkSize)
+                        : jdbcTemplate.update(step.getSql(), claim.getEntityId());
+                jdbcTemplate.update(RECORD_PROGRESS, rows, LocalDateTime.now(), claim.getTaskId());
+                return rows;
+            });
+            removed += affected;
+            if (!step.isChunked() || affected < chunkSize) {
+                return removed;
+            }
+            Thread.sleep(pause.toMillis());
+        }
+    }
+
+    private void finish(long taskId, DeletionStatus status, String error) {
+        jdbcTemplate.update(FINISH_TASK, status.name(), error, LocalDateTime.now(), taskId);
+    }
+
+    /**
+     * Пока транзакция не зафиксирована, читатель может снова положить в кэш прежнюю строку,
+     * поэтому записи сбрасываются и сразу, и после фиксации.
+     */
+    private static void evictNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        afterCommit(eviction);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Claim {
+        private final long taskId;
+
+        private final DeletionTarget target;
+
+        private final long entityId;
+
+        private final int attempt;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Step {
+        private final String sql;
+
+        private final boolean chunked;
+
+        static Step chunked(String sql) {
+            return new Step(sql, true);
+        }
+
+        static Step single(String sql) {
+            return new Step(sql, false);
+        }
+    }
+}
@@ -2,8 +2,10 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.practicum.shareit.constants.Request;
 
 import javax.validation.ConstraintViolationException;
 import java.util.HashMap;
@@ -22,6 +24,16 @@ public class ControllerExceptionHandler {
         return ResponseEntity.status(404).body(errors);
     }
 
+    @ExceptionHandler(UserNotFoundException.class)
+    public ResponseEntity<?> userNotFoundException(UserNotFoundException e) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("Объект не найден", e.getMessage());
+
+        log.error(e.getStackTrace()[0].getMethodName() + ": " + e.getMessage());
+
+        return ResponseEntity.status(404).header(Request.UNKNOWN_USER, "true").body(errors);
+    }
+
     @ExceptionHandler(NotValidParameterException.class)
     public ResponseEntity<?> notValidIdException(NotValidParameterException e) {
         Map<String, String> errors = new HashMap<>();
@@ -61,4 +73,14 @@ public class ControllerExceptionHandler {
 
         return ResponseEntity.status(400).body(errors);
     }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<?> optimisticLockingFailureException(ObjectOptimisticLockingFailureException e) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("Конфликт изменений", "Объект был изменён параллельным запросом, повторите попытку.");
+
+        log.error(e.getStackTrace()[0].getMethodName() + ": " + e.getMessage());
+
+        return ResponseEntity.status(409).body(errors);
+    }
 }
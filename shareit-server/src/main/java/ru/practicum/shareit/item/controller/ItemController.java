@@ -1,26 +1,58 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.constants.Request;
+import ru.practicum.shareit.deletion.dto.DeletionTaskDto;
+import ru.practicum.shareit.exception.NotValidParameterException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoByOwner;
+import ru.practicum.shareit.item.service.ItemImportService;
+import ru.practicum.shareit.item.service.ItemPopularityService;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 
+@Validated
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/items")
 public class ItemController {
+    private static final CacheControl PUBLIC_VIEW = CacheControl.maxAge(Duration.ofSeconds(30)).cachePublic();
+    private static final CacheControl OWNER_VIEW = CacheControl.noCache().cachePrivate();
+
     private final ItemServiceImpl service;
+    private final ItemImportService importService;
+    private final ItemPopularityService popularityService;
 
     @PostMapping
     public ItemDto createItem(@RequestHeader(Request.USER_ID) Long userId, @RequestBody ItemDto dto) {
         return service.createItem(dto, userId);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, Request.TEXT_CSV})
+    public void importItems(@RequestHeader(Request.USER_ID) Long userId, HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        importService.importItems(userId, MediaType.parseMediaType(request.getContentType()),
+                request.getInputStream(), response.getOutputStream());
+    }
+
     @PatchMapping("{itemId}")
     public ItemDto updateItem(@RequestHeader(Request.USER_ID) Long userId, @RequestBody ItemDto dto,
                               @PathVariable Long itemId) {
@@ -28,8 +60,18 @@ public class ItemController {
     }
 
     @GetMapping("{itemId}")
-    public ItemDtoByOwner findItemById(@RequestHeader(Request.USER_ID) Long userId, @PathVariable Long itemId) {
-        return service.findItemById(userId, itemId);
+    public ItemDtoByOwner findItemById(@RequestHeader(Request.USER_ID) Long userId, @PathVariable Long itemId,
+                                       WebRequest request, HttpServletResponse response) {
+        long ownerId = service.findOwnerId(itemId);
+        response.setHeader(Request.ITEM_OWNER, String.valueOf(ownerId));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, ownerId == userId ? OWNER_VIEW.getHeaderValue()
+                : PUBLIC_VIEW.getHeaderValue());
+        String itemTag = service.findItemTag(itemId);
+        if (ownerId != userId) {
+            return request.checkNotModified(itemTag) ? null : service.findItemById(userId, itemId);
+        }
+        ItemDtoByOwner item = service.findItemById(userId, itemId);
+        return request.checkNotModified(ItemService.ownerViewTag(itemTag, item)) ? null : item;
     }
 
     @GetMapping
@@ -39,17 +81,32 @@ public class ItemController {
         return service.findAll(userId, from, size);
     }
 
+    @GetMapping("/popular")
+    public List<ItemDto> findPopular(@RequestParam(defaultValue = "7d") String window,
+                                     @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size) {
+        Duration duration;
+        try {
+            duration = DurationStyle.SIMPLE.parse(window);
+        } catch (IllegalArgumentException e) {
+            throw new NotValidParameterException("Некорректное окно популярности: " + window);
+        }
+        return popularityService.findPopular(duration, size);
+    }
+
     @GetMapping("/search")
     public List<ItemDto> findItemByDescription(@RequestParam String text,
                                                @RequestParam int from,
-                                               @RequestParam int size) {
+                                               @RequestParam int size,
+                                               HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, PUBLIC_VIEW.getHeaderValue());
         return service.findItemByDescription(text, from, size);
     }
 
     @DeleteMapping("{itemId}")
-    public void removeItemById(@RequestHeader(Request.USER_ID) Long userId,
-                               @PathVariable Long itemId) {
-        service.removeItemById(userId, itemId);
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public DeletionTaskDto removeItemById(@RequestHeader(Request.USER_ID) Long userId,
+                                          @PathVariable Long itemId) {
+        return service.removeItemById(userId, itemId);
     }
 
     @PostMapping("{itemId}/comment")
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.CommentEligibility;
+import ru.practicum.shareit.item.model.CommentEligibilityId;
+
+@Repository
+public interface CommentEligibilityDao extends JpaRepository<CommentEligibility, CommentEligibilityId> {
+}
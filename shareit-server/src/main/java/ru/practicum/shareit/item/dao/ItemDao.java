@@ -2,11 +2,20 @@ package ru.practicum.shareit.item.dao;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemReplyView;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+import static org.hibernate.annotations.QueryHints.CACHE_REGION;
+
 @Repository
 public interface ItemDao extends JpaRepository<Item, Long> {
     List<Item> findItemsByOwnerId(Long ownerId, Pageable page);
@@ -17,7 +26,19 @@ public interface ItemDao extends JpaRepository<Item, Long> {
                                                                                                String texts,
                                                                                                Pageable page);
 
+    @QueryHints({@QueryHint(name = CACHEABLE, value = "true"), @QueryHint(name = CACHE_REGION, value = "item-replies")})
     List<Item> findByRequestId(Long requestId);
 
-    List<Item> findByRequestIdIn(List<Long> requestIds);
+    @QueryHints({@QueryHint(name = CACHEABLE, value = "true"), @QueryHint(name = CACHE_REGION, value = "item-replies")})
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, i.request.id) " +
+            "from Item i where i.request.id in ?1")
+    List<ItemDto> findRepliesByRequestIdIn(Collection<Long> requestIds);
+
+    @Query(value = "SELECT item_id AS id, item_name AS name, item_description AS description, " +
+            "is_available AS available, request_id AS requestId, reply_count AS replyCount FROM (" +
+            "SELECT i.*, COUNT(*) OVER (PARTITION BY i.request_id) AS reply_count, " +
+            "ROW_NUMBER() OVER (PARTITION BY i.request_id ORDER BY i.item_id DESC) AS reply_rank " +
+            "FROM items i JOIN requests r ON r.request_id = i.request_id WHERE r.requester_id = ?1 AND i.deleted = false) ranked " +
+            "WHERE reply_rank <= ?2 ORDER BY request_id, reply_rank", nativeQuery = true)
+    List<ItemReplyView> findLatestRepliesByRequesterId(Long requesterId, int limit);
 }
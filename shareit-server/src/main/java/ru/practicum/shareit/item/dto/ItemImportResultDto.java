@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportResultDto {
+    private long fromLine;
+
+    private long toLine;
+
+    private int imported;
+
+    private String error;
+
+    public static ItemImportResultDto imported(long fromLine, long toLine, int imported) {
+        return new ItemImportResultDto(fromLine, toLine, imported, null);
+    }
+
+    public static ItemImportResultDto rejected(long line, String error) {
+        return new ItemImportResultDto(line, line, 0, error);
+    }
+}
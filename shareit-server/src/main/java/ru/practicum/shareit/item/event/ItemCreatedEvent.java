@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemCreatedEvent {
+    private final Long itemId;
+
+    private final Long ownerId;
+
+    private final String name;
+
+    private final String description;
+
+    private final Long requestId;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemViewedEvent {
+    private final Long itemId;
+
+    private final Long userId;
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Where;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
@@ -15,6 +16,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Entity
 @Table(name = "comments")
+@Where(clause = "EXISTS (SELECT 1 FROM items d WHERE d.item_id = item_id AND d.deleted = false) " +
+        "AND EXISTS (SELECT 1 FROM users d WHERE d.user_id = author_id AND d.deleted = false)")
 public class Comment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "comment_eligibility")
+public class CommentEligibility {
+    @EmbeddedId
+    private CommentEligibilityId id;
+
+    @Column(name = "earliest_end", nullable = false)
+    private LocalDateTime earliestEnd;
+}
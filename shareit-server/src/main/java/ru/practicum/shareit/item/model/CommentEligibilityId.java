@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.*;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+@Embeddable
+public class CommentEligibilityId implements Serializable {
+    @Column(name = "booker_id")
+    private Long bookerId;
+
+    @Column(name = "item_id")
+    private Long itemId;
+}
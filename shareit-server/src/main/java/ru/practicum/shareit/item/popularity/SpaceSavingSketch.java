@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item.popularity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Счётчики Space-Saving в индексированной min-куче: вытесняемый минимум всегда в корне, поэтому учёт
+ * просмотра стоит O(log capacity), а не полный проход по счётчикам.
+ */
+public class SpaceSavingSketch {
+    private final int capacity;
+    private final long[] ids;
+    private final double[] counts;
+    private final Map<Long, Integer> positions;
+    private int size;
+
+    public SpaceSavingSketch(int capacity) {
+        this(capacity, Map.of());
+    }
+
+    public SpaceSavingSketch(int capacity, Map<Long, Double> counts) {
+        this.capacity = capacity;
+        this.ids = new long[capacity];
+        this.counts = new double[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .limit(capacity)
+                .forEach(entry -> offer(entry.getKey(), entry.getValue()));
+    }
+
+    public void offer(long itemId, double weight) {
+        Integer position = positions.get(itemId);
+        if (position != null) {
+            counts[position] += weight;
+            siftDown(position);
+            return;
+        }
+        if (size < capacity) {
+            ids[size] = itemId;
+            counts[size] = weight;
+            positions.put(itemId, size);
+            siftUp(size++);
+            return;
+        }
+
+        positions.remove(ids[0]);
+        ids[0] = itemId;
+        counts[0] += weight;
+        positions.put(itemId, 0);
+        siftDown(0);
+    }
+
+    public Map<Long, Double> getCounts() {
+        Map<Long, Double> result = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            result.put(ids[i], counts[i]);
+        }
+        return result;
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (counts[parent] <= counts[position]) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = position * 2 + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int first, int second) {
+        long id = ids[first];
+        double count = counts[first];
+        ids[first] = ids[second];
+        counts[first] = counts[second];
+        ids[second] = id;
+        counts[second] = count;
+        positions.put(ids[first], first);
+        positions.put(ids[second], second);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.booking.event.BookingCreatedEvent;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Право на комментарий хранится одной строкой на пару (арендатор, вещь). Строка пишется одним атомарным
+ * upsert, чтобы параллельные бронирования одной вещи не сталкивались на первичном ключе.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentEligibilityListener {
+    private static final String UPSERT_POSTGRES = "INSERT INTO comment_eligibility " +
+            "(booker_id, item_id, earliest_end) VALUES (?, ?, ?) ON CONFLICT (booker_id, item_id) DO UPDATE SET earliest_end = ";
+    private static final String KEEP_EARLIEST_POSTGRES =
+            "LEAST(comment_eligibility.earliest_end, EXCLUDED.earliest_end)";
+    private static final String REPLACE_POSTGRES = "EXCLUDED.earliest_end";
+    private static final String UPSERT_H2 = "MERGE INTO comment_eligibility t " +
+            "USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS TIMESTAMP))) " +
+            "s (booker_id, item_id, earliest_end) ON t.booker_id = s.booker_id AND t.item_id = s.item_id " +
+            "WHEN NOT MATCHED THEN INSERT (booker_id, item_id, earliest_end) " +
+            "VALUES (s.booker_id, s.item_id, s.earliest_end) WHEN MATCHED THEN UPDATE SET earliest_end = ";
+    private static final String KEEP_EARLIEST_H2 = "LEAST(t.earliest_end, s.earliest_end)";
+    private static final String REPLACE_H2 = "s.earliest_end";
+    private static final String DELETE = "DELETE FROM comment_eligibility WHERE booker_id = ? AND item_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingDao bookingDao;
+    private volatile Boolean postgres;
+
+    @EventListener
+    public void onBookingCreated(BookingCreatedEvent event) {
+        upsert(event.getBookerId(), event.getItemId(), event.getEnd(), true);
+    }
+
+    @EventListener
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        LocalDateTime earliestEnd = bookingDao.findEarliestEnd(event.getBookerId(), event.getItemId(),
+                BookingStatus.REJECTED);
+        if (earliestEnd == null) {
+            jdbcTemplate.update(DELETE, event.getBookerId(), event.getItemId());
+        } else {
+            upsert(event.getBookerId(), event.getItemId(), earliestEnd, false);
+        }
+        log.debug("Обновлено право на комментарий пользователя {} к вещи {}", event.getBookerId(), event.getItemId());
+    }
+
+    private void upsert(long bookerId, long itemId, LocalDateTime end, boolean keepEarliest) {
+        String sql = isPostgres()
+                ? UPSERT_POSTGRES + (keepEarliest ? KEEP_EARLIEST_POSTGRES : REPLACE_POSTGRES)
+                : UPSERT_H2 + (keepEarliest ? KEEP_EARLIEST_H2 : REPLACE_H2);
+        jdbcTemplate.update(sql, bookerId, itemId, Timestamp.valueOf(end));
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    connection.isWrapperFor(PGConnection.class));
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface ItemImportService {
+    void importItems(long userId, MediaType format, InputStream in, OutputStream out) throws IOException;
+}
@@ -0,0 +1,311 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.constants.Request;
+import ru.practicum.shareit.exception.NotValidParameterException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.request.dao.ItemRequestDao;
+import ru.practicum.shareit.request.event.ItemRequestRepliesChangedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.service.UserExistenceService;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ItemImportServiceImpl implements ItemImportService {
+    private static final int BATCH_SIZE = 500;
+    private static final MediaType TEXT_CSV = MediaType.valueOf(Request.TEXT_CSV);
+    private static final String INSERT_ITEM = "INSERT INTO items " +
+            "(item_name, item_description, is_available, owner_id, request_id) VALUES (?, ?, ?, ?, ?)";
+    private static final String INCREMENT_REQUEST_VERSION = "UPDATE requests SET version = version + 1 " +
+            "WHERE request_id = ?";
+
+    private final UserExistenceService userExistence;
+    private final ItemRequestDao itemRequestDao;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${shareit.items.import.max-line-length:8192}")
+    private int maxLineLength;
+
+    @Override
+    public void importItems(long userId, MediaType format, InputStream in, OutputStream out) throws IOException {
+        userExistence.checkUserAvailability(userId);
+
+        LineReader reader = new LineReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)),
+                maxLineLength);
+        boolean csv = TEXT_CSV.isCompatibleWith(format);
+        Map<String, Integer> columns = Collections.emptyMap();
+        if (csv) {
+            String header = reader.readLine();
+            if (reader.isOversized()) {
+                throw new NotValidParameterException("Заголовок длиннее " + maxLineLength + " символов.");
+            }
+            columns = readCsvHeader(header);
+        }
+
+        List<Row> batch = new ArrayList<>(BATCH_SIZE);
+        long lineNumber = csv ? 1 : 0;
+        long imported = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (reader.isOversized()) {
+                batch.add(new Row(lineNumber, null, "Строка длиннее " + maxLineLength + " символов."));
+            } else if (line.isBlank()) {
+                continue;
+            } else {
+                try {
+                    ItemDto dto = csv ? parseCsv(line, columns) : parseJson(line);
+                    batch.add(new Row(lineNumber, validate(dto), null));
+                } catch (NotValidParameterException e) {
+                    batch.add(new Row(lineNumber, null, e.getMessage()));
+                }
+            }
+            if (batch.size() == BATCH_SIZE) {
+                imported += flush(userId, batch, out);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            imported += flush(userId, batch, out);
+        }
+        log.info("Импортировано {} вещей пользователя с айди {}.", imported, userId);
+    }
+
+    private int flush(long userId, List<Row> batch, OutputStream out) throws IOException {
+        resolveRequests(batch);
+
+        List<Object[]> args = batch.stream()
+                .filter(row -> row.getError() == null)
+                .map(row -> new Object[]{row.getItem().getName(), row.getItem().getDescription(),
+                        row.getItem().getAvailable(), userId, row.getItem().getRequestId()})
+                .collect(Collectors.toList());
+
+        long fromLine = batch.get(0).getLine();
+        long toLine = batch.get(batch.size() - 1).getLine();
+        for (Row row : batch) {
+            if (row.getError() != null) {
+                write(out, ItemImportResultDto.rejected(row.getLine(), row.getError()));
+            }
+        }
+
+        List<Object[]> requestIds = batch.stream()
+                .filter(row -> row.getError() == null && row.getItem().getRequestId() != null)
+                .map(row -> row.getItem().getRequestId())
+                .distinct()
+                .map(requestId -> new Object[]{requestId})
+                .collect(Collectors.toList());
+
+        if (!args.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INSERT_ITEM, args);
+                    jdbcTemplate.batchUpdate(INCREMENT_REQUEST_VERSION, requestIds);
+                    eventPublisher.publishEvent(new ItemRequestRepliesChangedEvent(requestIds.stream()
+                            .map(requestId -> (Long) requestId[0])
+                            .collect(Collectors.toList())));
+                });
+            } catch (DataAccessException e) {
+                log.error("Не удалось сохранить вещи из строк {}-{}: {}", fromLine, toLine, e.getMessage());
+                write(out, new ItemImportResultDto(fromLine, toLine, 0, "Не удалось сохранить вещи."));
+                out.flush();
+                return 0;
+            }
+            requestIds.forEach(requestId -> entityManagerFactory.getCache().evict(ItemRequest.class, requestId[0]));
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        }
+        write(out, ItemImportResultDto.imported(fromLine, toLine, args.size()));
+        out.flush();
+        return args.size();
+    }
+
+    private void resolveRequests(List<Row> batch) {
+        Set<Long> requestIds = batch.stream()
+                .filter(row -> row.getError() == null && row.getItem().getRequestId() != null)
+                .map(row -> row.getItem().getRequestId())
+                .collect(Collectors.toSet());
+        if (requestIds.isEmpty()) {
+            return;
+        }
+        Set<Long> existing = itemRequestDao.findExistingIds(requestIds);
+        for (Row row : batch) {
+            if (row.getError() == null && row.getItem().getRequestId() != null
+                    && !existing.contains(row.getItem().getRequestId())) {
+                row.setError("Запрос не найден.");
+            }
+        }
+    }
+
+    private void write(OutputStream out, ItemImportResultDto result) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(result));
+        out.write('\n');
+    }
+
+    private ItemDto parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, ItemDto.class);
+        } catch (JsonProcessingException e) {
+            throw new NotValidParameterException("Некорректный формат строки.");
+        }
+    }
+
+    private ItemDto parseCsv(String line, Map<String, Integer> columns) {
+        List<String> values = splitCsvLine(line);
+        String available = column(values, columns, "available");
+        String requestId = column(values, columns, "requestid");
+
+        if (available != null && !available.equalsIgnoreCase("true") && !available.equalsIgnoreCase("false")) {
+            throw new NotValidParameterException("Некорректное значение доступности вещи.");
+        }
+        try {
+            return ItemDto.builder()
+                    .name(column(values, columns, "name"))
+                    .description(column(values, columns, "description"))
+                    .available(available != null ? Boolean.valueOf(available) : null)
+                    .requestId(requestId != null ? Long.valueOf(requestId) : null)
+                    .build();
+        } catch (NumberFormatException e) {
+            throw new NotValidParameterException("Некорректный айди запроса.");
+        }
+    }
+
+    private static ItemDto validate(ItemDto dto) {
+        if (dto.getName() == null || dto.getName().isBlank()) {
+            throw new NotValidParameterException("Наименование элемента отсутствует.");
+        }
+        if (dto.getDescription() == null || dto.getDescription().isBlank()) {
+            throw new NotValidParameterException("Описание элемента пустое.");
+        }
+        if (dto.getAvailable() == null) {
+            throw new NotValidParameterException("Доступность вещи не указана.");
+        }
+        return dto;
+    }
+
+    private static Map<String, Integer> readCsvHeader(String header) {
+        if (header == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsvLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(), i);
+        }
+        return columns;
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size() || values.get(index).isBlank()) {
+            return null;
+        }
+        return values.get(index).trim();
+    }
+
+    private static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    /**
+     * Читает строки, не накапливая в памяти больше {@code maxLength} символов: остаток слишком длинной строки
+     * пропускается до перевода строки, а сама строка помечается как слишком длинная.
+     */
+    private static class LineReader {
+        private final Reader reader;
+        private final int maxLength;
+        private final StringBuilder line = new StringBuilder();
+
+        @Getter
+        private boolean oversized;
+
+        LineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        String readLine() throws IOException {
+            line.setLength(0);
+            oversized = false;
+            boolean read = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                read = true;
+                if (c == '\n') {
+                    break;
+                }
+                if (c == '\r') {
+                    continue;
+                }
+                if (line.length() < maxLength) {
+                    line.append((char) c);
+                } else {
+                    oversized = true;
+                }
+            }
+            if (!read) {
+                return null;
+            }
+            return oversized ? "" : line.toString();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Row {
+        private final long line;
+
+        private final ItemDto item;
+
+        @Setter
+        private String error;
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.List;
+
+public interface ItemPopularityService {
+    List<ItemDto> findPopular(Duration window, int size);
+}
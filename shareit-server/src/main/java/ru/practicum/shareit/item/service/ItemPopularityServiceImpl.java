@@ -0,0 +1,229 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingCreatedEvent;
+import ru.practicum.shareit.exception.NotValidParameterException;
+import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemViewedEvent;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.popularity.SpaceSavingSketch;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class ItemPopularityServiceImpl implements ItemPopularityService {
+    private static final double BOOKING_WEIGHT = 3;
+    private static final double VIEW_WEIGHT = 1;
+    private static final long HOUR_SECONDS = Duration.ofHours(1).toSeconds();
+
+    private final ItemDao itemDao;
+    private final ObjectMapper objectMapper;
+    private final int capacity;
+    private final Duration retention;
+    private final double halfLifeHours;
+    private final String checkpointPath;
+    private final Bucket[] buckets;
+    private final Queue<Hit> hits = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public ItemPopularityServiceImpl(ItemDao itemDao, ObjectMapper objectMapper,
+                                     @Value("${shareit.popularity.capacity:256}") int capacity,
+                                     @Value("${shareit.popularity.retention:30d}") Duration retention,
+                                     @Value("${shareit.popularity.half-life:1d}") Duration halfLife,
+                                     @Value("${shareit.popularity.checkpoint-path:}") String checkpointPath) {
+        this.itemDao = itemDao;
+        this.objectMapper = objectMapper;
+        this.capacity = capacity;
+        this.retention = retention;
+        this.halfLifeHours = (double) halfLife.toSeconds() / HOUR_SECONDS;
+        this.checkpointPath = checkpointPath;
+        this.buckets = new Bucket[(int) retention.toHours()];
+    }
+
+    @TransactionalEventListener
+    public void onBookingCreated(BookingCreatedEvent event) {
+        record(event.getItemId(), BOOKING_WEIGHT, Instant.now());
+    }
+
+    @EventListener
+    public void onItemViewed(ItemViewedEvent event) {
+        record(event.getItemId(), VIEW_WEIGHT, Instant.now());
+    }
+
+    @Override
+    public List<ItemDto> findPopular(Duration window, int size) {
+        if (window.isNegative() || window.isZero() || window.compareTo(retention) > 0) {
+            throw new NotValidParameterException("Окно популярности должно быть от 1 часа до " +
+                    retention.toDays() + " дней.");
+        }
+
+        List<Long> ranking = scores(window, Instant.now()).entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .map(Map.Entry::getKey)
+                .limit(size * 2L)
+                .collect(Collectors.toList());
+        Map<Long, Item> items = itemDao.findAllById(ranking).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        log.info("Найдено {} популярных вещей за {}", Math.min(items.size(), size), window);
+        return ranking.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .limit(size)
+                .map(ItemMapper::doItemDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Просмотр попадает в очередь без блокировки; очередь разбирает тот поток, которому удалось взять
+     * блокировку, остальные не ждут.
+     */
+    void record(long itemId, double weight, Instant at) {
+        hits.add(new Hit(itemId, weight, at.getEpochSecond() / HOUR_SECONDS));
+        if (lock.tryLock()) {
+            try {
+                drain();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    Map<Long, Double> scores(Duration window, Instant at) {
+        long now = at.getEpochSecond() / HOUR_SECONDS;
+        long windowHours = Math.max(1, window.toHours());
+        Map<Long, Double> scores = new HashMap<>();
+        lock.lock();
+        try {
+            drain();
+            for (Bucket bucket : buckets) {
+                if (bucket == null || now - bucket.getHour() >= windowHours || bucket.getHour() > now) {
+                    continue;
+                }
+                double decay = Math.pow(0.5, (now - bucket.getHour()) / halfLifeHours);
+                bucket.getSketch().getCounts()
+                        .forEach((itemId, count) -> scores.merge(itemId, count * decay, Double::sum));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return scores;
+    }
+
+    private void drain() {
+        Hit hit;
+        while ((hit = hits.poll()) != null) {
+            int slot = (int) (hit.getHour() % buckets.length);
+            if (buckets[slot] == null || buckets[slot].getHour() < hit.getHour()) {
+                buckets[slot] = new Bucket(hit.getHour(), new SpaceSavingSketch(capacity));
+            } else if (buckets[slot].getHour() > hit.getHour()) {
+                continue;
+            }
+            buckets[slot].getSketch().offer(hit.getItemId(), hit.getWeight());
+        }
+    }
+
+    @PostConstruct
+    public void restore() {
+        if (checkpointPath.isBlank() || !Files.exists(Path.of(checkpointPath))) {
+            return;
+        }
+        try {
+            List<Snapshot> snapshots = objectMapper.readValue(Path.of(checkpointPath).toFile(),
+                    new TypeReference<>() {
+                    });
+            lock.lock();
+            try {
+                for (Snapshot snapshot : snapshots) {
+                    buckets[(int) (snapshot.getHour() % buckets.length)] =
+                            new Bucket(snapshot.getHour(), new SpaceSavingSketch(capacity, snapshot.getCounts()));
+                }
+            } finally {
+                lock.unlock();
+            }
+            log.info("Восстановлена статистика популярности вещей из {}", checkpointPath);
+        } catch (IOException e) {
+            log.error("Не удалось восстановить статистику популярности вещей: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${shareit.popularity.checkpoint-interval:PT5M}")
+    public void checkpoint() {
+        if (checkpointPath.isBlank()) {
+            return;
+        }
+        List<Snapshot> snapshots = new ArrayList<>();
+        lock.lock();
+        try {
+            drain();
+            for (Bucket bucket : buckets) {
+                if (bucket != null) {
+                    snapshots.add(new Snapshot(bucket.getHour(), bucket.getSketch().getCounts()));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        try {
+            Path target = Path.of(checkpointPath);
+            Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), "popularity", ".tmp");
+            objectMapper.writeValue(temp.toFile(), snapshots);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Не удалось сохранить статистику популярности вещей: {}", e.getMessage());
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Bucket {
+        private final long hour;
+
+        private final SpaceSavingSketch sketch;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Hit {
+        private final long itemId;
+
+        private final double weight;
+
+        private final long hour;
+    }
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    private static class Snapshot {
+        private long hour;
+
+        private Map<Long, Double> counts;
+    }
+}
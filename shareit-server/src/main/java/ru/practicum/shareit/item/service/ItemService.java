@@ -1,5 +1,7 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.deletion.dto.DeletionTaskDto;
 import ru.practicum.shareit.exception.NotAccessException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dao.ItemDao;
@@ -18,14 +20,26 @@ public interface ItemService {
 
     ItemDtoByOwner findItemById(long userId, long itemId);
 
+    String findItemTag(long itemId);
+
+    long findOwnerId(long itemId);
+
     List<ItemDtoByOwner> findAll(long userId, int from, int size);
 
     List<ItemDto> findItemByDescription(String text, int from, int size);
 
-    void removeItemById(long userId, long itemId);
+    DeletionTaskDto removeItemById(long userId, long itemId);
 
     CommentDto addComment(CommentDto commentDto, long userId, long itemId);
 
+    static String ownerViewTag(String itemTag, ItemDtoByOwner item) {
+        return String.format("%s-%s-%s", itemTag, bookingTag(item.getLastBooking()), bookingTag(item.getNextBooking()));
+    }
+
+    private static String bookingTag(BookingDto booking) {
+        return booking == null ? "0" : booking.getId() + "." + booking.getStatus();
+    }
+
     static void checkItemAvailability(ItemDao itemDao, long itemId) {
         if (!itemDao.existsById(itemId)) {
             throw new NotFoundException("Вещь с указанным айди не найдена.");
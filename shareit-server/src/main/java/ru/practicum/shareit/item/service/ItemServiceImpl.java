@@ -2,33 +2,48 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dao.BookingDao;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.deletion.dto.DeletionTaskDto;
+import ru.practicum.shareit.deletion.service.DeletionService;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotValidParameterException;
 import ru.practicum.shareit.item.dao.CommentDao;
+import ru.practicum.shareit.item.dao.CommentEligibilityDao;
 import ru.practicum.shareit.item.dao.ItemDao;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoByOwner;
+import ru.practicum.shareit.item.event.ItemCreatedEvent;
+import ru.practicum.shareit.item.event.ItemViewedEvent;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentEligibility;
+import ru.practicum.shareit.item.model.CommentEligibilityId;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dao.ItemRequestDao;
+import ru.practicum.shareit.request.event.ItemRequestRepliesChangedEvent;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dao.UserDao;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static ru.practicum.shareit.item.service.ItemService.checkItemAccess;
 
@@ -37,11 +52,20 @@ import static ru.practicum.shareit.item.service.ItemService.checkItemAccess;
 @Transactional
 @Service
 public class ItemServiceImpl implements ItemService {
+    private static final String INCREMENT_ITEM_VERSION = "UPDATE items SET version = version + 1 WHERE item_id = ?";
+    private static final String INCREMENT_REQUEST_VERSION = "UPDATE requests SET version = version + 1 " +
+            "WHERE request_id = ?";
+
     private final ItemDao itemDao;
     private final UserDao userDao;
     private final BookingDao bookingDao;
     private final CommentDao commentDao;
     private final ItemRequestDao itemRequestDao;
+    private final CommentEligibilityDao eligibilityDao;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DeletionService deletionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Override
     public ItemDto createItem(ItemDto dto, Long userId) {
@@ -52,6 +76,8 @@ public class ItemServiceImpl implements ItemService {
 
         Item savedItem = itemDao.save(item);
         log.info("Добавлена вещь {}", savedItem);
+        eventPublisher.publishEvent(new ItemCreatedEvent(savedItem.getId(), userId, savedItem.getName(),
+                savedItem.getDescription(), dto.getRequestId()));
         return ItemMapper.doItemDto(item);
     }
 
@@ -74,8 +100,17 @@ public class ItemServiceImpl implements ItemService {
 
         item.setId(itemId);
         item.setOwner(user);
+        item.setVersion(oldItem.getVersion());
+        lockReplacedRequest(oldItem, item);
 
         Item newItem = itemDao.save(item);
+        Long oldRequestId = oldItem.getRequest() != null ? oldItem.getRequest().getId() : null;
+        Long newRequestId = newItem.getRequest() != null ? newItem.getRequest().getId() : null;
+        if (!Objects.equals(oldRequestId, newRequestId)) {
+            eventPublisher.publishEvent(new ItemRequestRepliesChangedEvent(Stream.of(oldRequestId, newRequestId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList())));
+        }
         log.info("Обновлена вещь {}", newItem);
         return ItemMapper.doItemDto(newItem);
     }
@@ -92,10 +127,28 @@ public class ItemServiceImpl implements ItemService {
         List<Booking> nextBookings = bookingDao.findByItemIdAndItemOwnerIdAndStartIsAfterAndStatusIsNot(itemId, userId,
                 now, BookingStatus.REJECTED);
 
+        if (!Objects.equals(item.getOwner().getId(), userId)) {
+            eventPublisher.publishEvent(new ItemViewedEvent(itemId, userId));
+        }
         log.info("Найдена вещь с айди {}", itemId);
         return ItemMapper.doItemDtoByOwner(item, lastBookings, nextBookings, comments);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String findItemTag(long itemId) {
+        Item item = itemDao.findById(itemId).orElseThrow(() -> new NotFoundException("Вещь не найдена."));
+        return String.format("item-%d-%d", itemId, item.getVersion());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long findOwnerId(long itemId) {
+        return itemDao.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь не найдена."))
+                .getOwner().getId();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ItemDtoByOwner> findAll(long userId, int from, int size) {
@@ -136,28 +189,30 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public CommentDto addComment(CommentDto commentDto, long userId, long itemId) {
         User user = userDao.findById(userId).orElseThrow(() -> new NotValidParameterException("Пользователь не найден."));
-        Item item = itemDao.findById(itemId).orElseThrow(() -> new NotValidParameterException("Вещь не найдена."));
+        Item item = itemDao.findById(itemId)
+                .orElseThrow(() -> new NotValidParameterException("Вещь не найдена."));
 
-        Booking booking = bookingDao
-                .findTopByStatusNotLikeAndBookerIdAndItemIdOrderByEndAsc(BookingStatus.REJECTED, userId, itemId);
+        CommentEligibility eligibility = eligibilityDao.findById(new CommentEligibilityId(userId, itemId))
+                .orElseThrow(() -> new NotValidParameterException(String
+                        .format("Пользователь %s не пользовался вещью %s.", user.getName(), item.getName())));
         Comment comment = CommentMapper.toComment(commentDto, user, item);
 
-        if (booking == null) {
-            throw new NotValidParameterException(String
-                    .format("Пользователь %s не пользовался вещью %s.", user.getName(), item.getName()));
-        }
-        if (comment.getCreated().isBefore(booking.getEnd())) {
+        if (comment.getCreated().isBefore(eligibility.getEarliestEnd())) {
             throw new NotValidParameterException("Необходимо завершить аренду вещи для написания комментария.");
         }
-        return CommentMapper.toCommentDto(commentDao.save(comment));
+        CommentDto saved = CommentMapper.toCommentDto(commentDao.save(comment));
+        incrementVersion(INCREMENT_ITEM_VERSION, Item.class, itemId);
+        return saved;
     }
 
     @Override
-    public void removeItemById(long userId, long itemId) {
-        itemDao.findById(itemId).orElseThrow(() -> new NotFoundException("Вещь с не найдена."));
+    public DeletionTaskDto removeItemById(long userId, long itemId) {
+        Item item = itemDao.findById(itemId).orElseThrow(() -> new NotFoundException("Вещь с не найдена."));
         checkItemAccess(itemDao, userId, itemId);
-        itemDao.deleteById(itemId);
-        log.info("Удалена вещь с айди {}", itemId);
+        lockReplacedRequest(item, null);
+        DeletionTaskDto task = deletionService.scheduleItemDeletion(itemId);
+        log.info("Вещь с айди {} поставлена в очередь на удаление, задача {}.", itemId, task.getId());
+        return task;
     }
 
     private ItemRequest doRequests(ItemDto dto) {
@@ -165,9 +220,42 @@ public class ItemServiceImpl implements ItemService {
         if (dto.getRequestId() != null) {
             requests = itemRequestDao.findById(dto.getRequestId())
                     .orElseThrow(() -> new NotFoundException("Запрос не найден."));
+            incrementVersion(INCREMENT_REQUEST_VERSION, ItemRequest.class, requests.getId());
         } else {
             requests = null;
         }
         return requests;
     }
+
+    private void lockReplacedRequest(Item oldItem, Item newItem) {
+        ItemRequest request = oldItem.getRequest();
+        if (request != null && (newItem == null || newItem.getRequest() == null
+                || !Objects.equals(request.getId(), newItem.getRequest().getId()))) {
+            incrementVersion(INCREMENT_REQUEST_VERSION, ItemRequest.class, request.getId());
+        }
+    }
+
+    /**
+     * Меняет версию без проверки прежней: одновременные комментарии или ответы на один запрос
+     * не должны мешать друг другу, важно лишь, чтобы тег сменился. Запись в кэше второго уровня
+     * сбрасывается и сразу, и после фиксации, чтобы читатель не вернул туда старую версию.
+     */
+    private void incrementVersion(String sql, Class<?> entity, long id) {
+        jdbcTemplate.update(sql, id);
+        entityManagerFactory.getCache().evict(entity, id);
+        afterCommit(() -> entityManagerFactory.getCache().evict(entity, id));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
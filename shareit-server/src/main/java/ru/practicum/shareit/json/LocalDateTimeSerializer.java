@@ -0,0 +1,60 @@
+package ru.practicum.shareit.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+@JsonComponent
+public class LocalDateTimeSerializer extends StdSerializer<LocalDateTime> {
+    private static final int MAX_LENGTH = 29;
+
+    public LocalDateTimeSerializer() {
+        super(LocalDateTime.class);
+    }
+
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+            return;
+        }
+        char[] buffer = new char[MAX_LENGTH];
+        int pos = appendDigits(buffer, 0, year, 4);
+        buffer[pos++] = '-';
+        pos = appendDigits(buffer, pos, value.getMonthValue(), 2);
+        buffer[pos++] = '-';
+        pos = appendDigits(buffer, pos, value.getDayOfMonth(), 2);
+        buffer[pos++] = 'T';
+        pos = appendDigits(buffer, pos, value.getHour(), 2);
+        buffer[pos++] = ':';
+        pos = appendDigits(buffer, pos, value.getMinute(), 2);
+        buffer[pos++] = ':';
+        pos = appendDigits(buffer, pos, value.getSecond(), 2);
+
+        int nano = value.getNano();
+        if (nano > 0) {
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            buffer[pos++] = '.';
+            pos = appendDigits(buffer, pos, nano, digits);
+        }
+        gen.writeString(buffer, 0, pos);
+    }
+
+    private static int appendDigits(char[] buffer, int pos, int value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.notification.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.constants.Request;
+import ru.practicum.shareit.notification.service.NotificationService;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/events")
+public class NotificationController {
+    private final NotificationService notificationService;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestHeader(Request.USER_ID) Long userId,
+                                @RequestHeader(value = Request.LAST_EVENT_ID, required = false) Long lastEventId) {
+        return notificationService.subscribe(userId, lastEventId);
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.notification.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class Notification {
+    private final Long id;
+
+    private final NotificationType type;
+
+    private final Long entityId;
+
+    private final LocalDateTime created;
+}
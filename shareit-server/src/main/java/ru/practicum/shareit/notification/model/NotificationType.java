@@ -0,0 +1,14 @@
+package ru.practicum.shareit.notification.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum NotificationType {
+    BOOKING_APPROVED("BookingApproved"),
+    BOOKING_REJECTED("BookingRejected"),
+    REQUEST_ANSWERED("RequestAnswered");
+
+    private final String eventName;
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.notification.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.item.event.ItemCreatedEvent;
+import ru.practicum.shareit.notification.model.NotificationType;
+import ru.practicum.shareit.request.dao.ItemRequestDao;
+
+@Component
+@RequiredArgsConstructor
+public class NotificationListener {
+    private final NotificationService notificationService;
+    private final ItemRequestDao requestDao;
+
+    @TransactionalEventListener
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        if (event.getStatus() == BookingStatus.APPROVED) {
+            notificationService.publish(event.getBookerId(), NotificationType.BOOKING_APPROVED, event.getBookingId());
+        } else if (event.getStatus() == BookingStatus.REJECTED) {
+            notificationService.publish(event.getBookerId(), NotificationType.BOOKING_REJECTED, event.getBookingId());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onItemCreated(ItemCreatedEvent event) {
+        if (event.getRequestId() == null) {
+            return;
+        }
+        requestDao.findById(event.getRequestId()).ifPresent(request -> notificationService.publish(
+                request.getRequester().getId(), NotificationType.REQUEST_ANSWERED, request.getId()));
+    }
+}
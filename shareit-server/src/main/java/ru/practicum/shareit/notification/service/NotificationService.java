@@ -0,0 +1,10 @@
+package ru.practicum.shareit.notification.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.notification.model.NotificationType;
+
+public interface NotificationService {
+    SseEmitter subscribe(long userId, Long lastEventId);
+
+    void publish(long userId, NotificationType type, long entityId);
+}
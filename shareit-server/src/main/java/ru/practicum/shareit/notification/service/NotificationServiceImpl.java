@@ -0,0 +1,188 @@
+package ru.practicum.shareit.notification.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.notification.model.Notification;
+import ru.practicum.shareit.notification.model.NotificationType;
+import ru.practicum.shareit.user.service.UserExistenceService;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class NotificationServiceImpl implements NotificationService {
+    private final UserExistenceService userExistence;
+    private final int replaySize;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final Duration replayTtl;
+    private final ExecutorService dispatcher;
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+
+    public NotificationServiceImpl(UserExistenceService userExistence,
+                                   @Value("${shareit.events.replay-size:50}") int replaySize,
+                                   @Value("${shareit.events.buffer-size:100}") int bufferSize,
+                                   @Value("${shareit.events.timeout:PT30M}") Duration timeout,
+                                   @Value("${shareit.events.replay-ttl:PT10M}") Duration replayTtl,
+                                   @Value("${shareit.events.dispatcher-threads:4}") int dispatcherThreads) {
+        this.userExistence = userExistence;
+        this.replaySize = replaySize;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.replayTtl = replayTtl;
+        this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads);
+    }
+
+    @Override
+    public SseEmitter subscribe(long userId, Long lastEventId) {
+        userExistence.checkUserAvailability(userId);
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = new Subscription(userId, emitter);
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+
+        channels.compute(userId, (id, channel) -> {
+            Channel current = channel != null ? channel : new Channel();
+            current.subscribers.add(subscription);
+            if (lastEventId != null) {
+                current.history.stream()
+                        .filter(notification -> notification.getId() > lastEventId)
+                        .forEach(subscription::offer);
+            }
+            return current;
+        });
+        log.debug("Пользователь {} подписался на события, последнее полученное событие {}", userId, lastEventId);
+        return emitter;
+    }
+
+    @Override
+    public void publish(long userId, NotificationType type, long entityId) {
+        Notification notification = new Notification(sequence.incrementAndGet(), type, entityId, LocalDateTime.now());
+        channels.compute(userId, (id, channel) -> {
+            Channel current = channel != null ? channel : new Channel();
+            current.history.addLast(notification);
+            while (current.history.size() > replaySize) {
+                current.history.removeFirst();
+            }
+            current.subscribers.forEach(subscription -> subscription.offer(notification));
+            return current;
+        });
+        log.debug("Пользователю {} отправлено событие {} по объекту {}", userId, type.getEventName(), entityId);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.events.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        LocalDateTime expired = LocalDateTime.now().minus(replayTtl);
+        for (Long userId : channels.keySet()) {
+            channels.computeIfPresent(userId, (id, channel) -> {
+                channel.subscribers.forEach(Subscription::heartbeat);
+                while (!channel.history.isEmpty() && channel.history.peekFirst().getCreated().isBefore(expired)) {
+                    channel.history.removeFirst();
+                }
+                return channel.subscribers.isEmpty() && channel.history.isEmpty() ? null : channel;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscription -> subscription.emitter.complete()));
+        dispatcher.shutdown();
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        channels.computeIfPresent(subscription.userId, (id, channel) -> {
+            channel.subscribers.remove(subscription);
+            return channel.subscribers.isEmpty() && channel.history.isEmpty() ? null : channel;
+        });
+    }
+
+    private static class Channel {
+        private final Deque<Notification> history = new ArrayDeque<>();
+
+        private final List<Subscription> subscribers = new CopyOnWriteArrayList<>();
+    }
+
+    private class Subscription {
+        private final long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Notification> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean heartbeatPending = new AtomicBoolean();
+        private final AtomicBoolean overflowed = new AtomicBoolean();
+        private long lastSentId;
+
+        private Subscription(long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private void offer(Notification notification) {
+            if (!queue.offer(notification)) {
+                overflowed.set(true);
+            }
+            schedule();
+        }
+
+        private void heartbeat() {
+            heartbeatPending.set(true);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            if (overflowed.get()) {
+                log.warn("Переполнен буфер событий пользователя {}, соединение закрыто.", userId);
+                queue.clear();
+                unsubscribe(this);
+                emitter.complete();
+                return;
+            }
+            try {
+                Notification notification;
+                while ((notification = queue.poll()) != null) {
+                    if (notification.getId() > lastSentId) {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(notification.getId()))
+                                .name(notification.getType().getEventName())
+                                .data(notification, MediaType.APPLICATION_JSON));
+                        lastSentId = notification.getId();
+                    }
+                }
+                if (heartbeatPending.getAndSet(false)) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Соединение пользователя {} закрыто: {}", userId, e.getMessage());
+                queue.clear();
+                unsubscribe(this);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            if (!queue.isEmpty() || heartbeatPending.get()) {
+                schedule();
+            }
+        }
+    }
+}
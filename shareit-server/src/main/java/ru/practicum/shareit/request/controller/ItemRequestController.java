@@ -3,9 +3,13 @@ package ru.practicum.shareit.request.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.constants.Request;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoByOwner;
+import ru.practicum.shareit.request.dto.ItemRequestFeedDto;
+import ru.practicum.shareit.request.dto.ItemRequestSummaryDto;
+import ru.practicum.shareit.request.dto.RequestSuggestionDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.util.List;
@@ -28,6 +32,12 @@ public class ItemRequestController {
         return requestService.findAllUsersRequestsWithReplies(userId);
     }
 
+    @GetMapping("/summary")
+    public List<ItemRequestSummaryDto> findAllSummary(@RequestHeader(Request.USER_ID) Long userId,
+                                                      @RequestParam(defaultValue = "3") int replies) {
+        return requestService.findAllUsersRequestsSummary(userId, replies);
+    }
+
     @GetMapping("/all")
     public List<ItemRequestDtoByOwner> findAll(@RequestHeader(Request.USER_ID) Long userId,
                                                @RequestParam int from,
@@ -35,9 +45,24 @@ public class ItemRequestController {
         return requestService.findAll(userId, from, size);
     }
 
+    @GetMapping("/feed")
+    public ItemRequestFeedDto findFeed(@RequestHeader(Request.USER_ID) Long userId,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(defaultValue = "10") int size) {
+        return requestService.findFeed(userId, cursor, size);
+    }
+
+    @GetMapping("/suggestions")
+    public List<RequestSuggestionDto> findSuggestions(@RequestHeader(Request.USER_ID) Long userId) {
+        return requestService.findSuggestions(userId);
+    }
+
     @GetMapping("/{requestId}")
     public ItemRequestDtoByOwner findByIdWithReplies(@RequestHeader(Request.USER_ID) Long userId,
-                                                     @PathVariable Long requestId) {
+                                                     @PathVariable Long requestId, WebRequest request) {
+        if (request.checkNotModified(requestService.findRequestTag(userId, requestId))) {
+            return null;
+        }
         return requestService.findByIdWithReplies(userId, requestId);
     }
 }
@@ -1,15 +1,47 @@
 package ru.practicum.shareit.request.dao;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.dto.OpenRequestView;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface ItemRequestDao extends JpaRepository<ItemRequest, Long> {
+    @EntityGraph(attributePaths = "requester")
     List<ItemRequest> findAllByRequesterId(Long userId);
 
+    @EntityGraph(attributePaths = "requester")
     List<ItemRequest> findAllByRequesterIdNot(Long userId, Pageable pageable);
+
+    @Query("select r from ItemRequest r join fetch r.requester u where u.id <> ?1 " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findFeedPage(Long userId, Pageable pageable);
+
+    @Query("select r from ItemRequest r join fetch r.requester u where u.id <> ?1 " +
+            "and (r.created, r.id) < (?2, ?3) order by r.created desc, r.id desc")
+    List<ItemRequest> findFeedPageAfter(Long userId, LocalDateTime created, Long requestId, Pageable pageable);
+
+    @Query("select r.id as id, r.description as description from ItemRequest r where r.id > ?1 " +
+            "and not exists (select i.id from Item i where i.request = r) " +
+            "and exists (select u.id from User u where u = r.requester) order by r.id")
+    List<OpenRequestView> findOpenAfter(Long afterId, Pageable pageable);
+
+    @Query("select r from ItemRequest r where r.id in ?1 " +
+            "and not exists (select i.id from Item i where i.request = r) " +
+            "and exists (select u.id from User u where u = r.requester)")
+    List<ItemRequest> findOpenByIds(Collection<Long> ids);
+
+    @Query("select r.id from ItemRequest r where r.id in ?1 and r.requester.id <> ?2")
+    Set<Long> findIdsNotRequestedBy(Collection<Long> ids, Long userId);
+
+    @Query("select r.id from ItemRequest r where r.id in ?1")
+    Set<Long> findExistingIds(Collection<Long> ids);
 }
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.request.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.model.RequestSuggestion;
+import ru.practicum.shareit.request.model.RequestSuggestionId;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RequestSuggestionDao extends JpaRepository<RequestSuggestion, RequestSuggestionId> {
+    @Query("select s from RequestSuggestion s join fetch s.item i join fetch s.request r " +
+            "where i.owner.id = ?1 order by s.score desc, s.created desc")
+    List<RequestSuggestion> findAllByOwnerId(Long ownerId);
+
+    @Modifying
+    @Query("delete from RequestSuggestion s where s.id.requestId in ?1 " +
+            "and exists (select i.id from Item i where i.request.id = s.id.requestId)")
+    int deleteAnswered(Collection<Long> requestIds);
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemRequestSummaryDto {
+    private Long id;
+
+    private String description;
+
+    private LocalDateTime created;
+
+    private Long replyCount;
+
+    private List<ItemDto> latestReplies;
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class RequestSuggestionDto {
+    private Long itemId;
+
+    private String itemName;
+
+    private Long requestId;
+
+    private String requestDescription;
+
+    private Integer score;
+
+    private LocalDateTime created;
+}
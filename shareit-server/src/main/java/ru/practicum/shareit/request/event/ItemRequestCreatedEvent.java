@@ -0,0 +1,12 @@
+package ru.practicum.shareit.request.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemRequestCreatedEvent {
+    private final Long requestId;
+
+    private final String description;
+}
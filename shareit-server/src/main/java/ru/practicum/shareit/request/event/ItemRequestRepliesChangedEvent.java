@@ -0,0 +1,12 @@
+package ru.practicum.shareit.request.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+@Getter
+@AllArgsConstructor
+public class ItemRequestRepliesChangedEvent {
+    private final Collection<Long> requestIds;
+}
@@ -3,7 +3,10 @@ package ru.practicum.shareit.request.mapper;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoByOwner;
+import ru.practicum.shareit.request.dto.ItemRequestSummaryDto;
+import ru.practicum.shareit.request.dto.RequestSuggestionDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestSuggestion;
 
 import java.util.List;
 
@@ -13,7 +16,8 @@ public class ItemRequestMapper {
                 dto.getId(),
                 dto.getDescription(),
                 dto.getRequester(),
-                dto.getCreated()
+                dto.getCreated(),
+                null
         );
     }
 
@@ -35,4 +39,26 @@ public class ItemRequestMapper {
                 reply
         );
     }
+
+    public static RequestSuggestionDto doRequestSuggestionDto(RequestSuggestion suggestion) {
+        return new RequestSuggestionDto(
+                suggestion.getItem().getId(),
+                suggestion.getItem().getName(),
+                suggestion.getRequest().getId(),
+                suggestion.getRequest().getDescription(),
+                suggestion.getScore(),
+                suggestion.getCreated()
+        );
+    }
+
+    public static ItemRequestSummaryDto doItemRequestSummaryDto(ItemRequest request, long replyCount,
+                                                                List<ItemDto> latestReplies) {
+        return new ItemRequestSummaryDto(
+                request.getId(),
+                request.getDescription(),
+                request.getCreated(),
+                replyCount,
+                latestReplies
+        );
+    }
 }
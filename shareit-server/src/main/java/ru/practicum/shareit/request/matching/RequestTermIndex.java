@@ -0,0 +1,93 @@
+package ru.practicum.shareit.request.matching;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Component
+public class RequestTermIndex {
+    private static final int MIN_TERM_LENGTH = 3;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "нужен", "нужна", "нужно", "нужны", "ищу", "ищем", "хочу", "кто", "есть", "для", "без", "под", "над",
+            "при", "про", "что", "чтобы", "как", "или", "это", "этот", "эта", "эти", "так", "уже", "еще", "ещё",
+            "можно", "пожалуйста", "очень", "где", "его", "она", "они", "мне", "нам", "вас", "всё", "все",
+            "the", "and", "for", "with", "without", "need", "needed", "want", "looking", "any", "anyone",
+            "please", "some", "that", "this", "from", "who", "have", "has");
+
+    private static final Comparator<Map.Entry<Long, Integer>> BY_SCORE =
+            Map.Entry.<Long, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey());
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> terms = new ConcurrentHashMap<>();
+
+    public void add(Long requestId, String description) {
+        Set<String> requestTerms = tokenize(description);
+        if (requestTerms.isEmpty() || terms.putIfAbsent(requestId, requestTerms) != null) {
+            return;
+        }
+        for (String term : requestTerms) {
+            postings.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(requestId);
+        }
+    }
+
+    public void remove(Long requestId) {
+        Set<String> requestTerms = terms.remove(requestId);
+        if (requestTerms == null) {
+            return;
+        }
+        for (String term : requestTerms) {
+            postings.computeIfPresent(term, (key, ids) -> {
+                ids.remove(requestId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    public Map<Long, Integer> match(String text) {
+        Map<Long, Integer> scores = new HashMap<>();
+        for (String term : tokenize(text)) {
+            for (Long requestId : postings.getOrDefault(term, Collections.emptySet())) {
+                scores.merge(requestId, 1, Integer::sum);
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Возвращает не более {@code limit} запросов с наибольшим числом общих с текстом терминов, по убыванию.
+     * Запрос попадает в выборку, если совпало хотя бы {@code minScore} терминов или половина его терминов.
+     */
+    public Map<Long, Integer> top(String text, int limit, int minScore) {
+        PriorityQueue<Map.Entry<Long, Integer>> best = new PriorityQueue<>(BY_SCORE);
+        for (Map.Entry<Long, Integer> entry : match(text).entrySet()) {
+            Set<String> requestTerms = terms.get(entry.getKey());
+            if (requestTerms == null || entry.getValue() < Math.min(minScore, (requestTerms.size() + 1) / 2)) {
+                continue;
+            }
+            best.offer(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Map.Entry<Long, Integer>> ordered = new ArrayList<>(best);
+        ordered.sort(BY_SCORE.reversed());
+        Map<Long, Integer> result = new LinkedHashMap<>();
+        ordered.forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+        return result;
+    }
+
+    public int size() {
+        return terms.size();
+    }
+
+    static Set<String> tokenize(String text) {
+        if (text == null) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> term.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(term))
+                .collect(Collectors.toSet());
+    }
+}
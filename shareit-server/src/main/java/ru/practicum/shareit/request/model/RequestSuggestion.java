@@ -0,0 +1,35 @@
+package ru.practicum.shareit.request.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "request_suggestions")
+public class RequestSuggestion {
+    @EmbeddedId
+    private RequestSuggestionId id;
+
+    @MapsId("itemId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id")
+    private Item item;
+
+    @MapsId("requestId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "request_id")
+    private ItemRequest request;
+
+    @Column(name = "score", nullable = false)
+    private Integer score;
+
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
+}
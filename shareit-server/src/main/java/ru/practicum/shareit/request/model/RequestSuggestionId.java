@@ -0,0 +1,20 @@
+package ru.practicum.shareit.request.model;
+
+import lombok.*;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+@Embeddable
+public class RequestSuggestionId implements Serializable {
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "request_id")
+    private Long requestId;
+}
@@ -2,6 +2,9 @@ package ru.practicum.shareit.request.service;
 
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoByOwner;
+import ru.practicum.shareit.request.dto.ItemRequestFeedDto;
+import ru.practicum.shareit.request.dto.ItemRequestSummaryDto;
+import ru.practicum.shareit.request.dto.RequestSuggestionDto;
 
 import java.util.List;
 
@@ -10,7 +13,15 @@ public interface ItemRequestService {
 
     List<ItemRequestDtoByOwner> findAllUsersRequestsWithReplies(Long userId);
 
+    List<ItemRequestSummaryDto> findAllUsersRequestsSummary(Long userId, int replies);
+
     List<ItemRequestDtoByOwner> findAll(Long userId, int from, int size);
 
+    ItemRequestFeedDto findFeed(Long userId, String cursor, int size);
+
+    List<RequestSuggestionDto> findSuggestions(Long userId);
+
     ItemRequestDtoByOwner findByIdWithReplies(Long userId, Long requestId);
+
+    String findRequestTag(Long userId, Long requestId);
 }
@@ -2,38 +2,54 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.NotValidParameterException;
 import ru.practicum.shareit.item.dao.ItemDao;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.item.mapper.ItemMapper;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.dto.ItemReplyView;
 import ru.practicum.shareit.request.dao.ItemRequestDao;
+import ru.practicum.shareit.request.dao.RequestSuggestionDao;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoByOwner;
+import ru.practicum.shareit.request.dto.ItemRequestFeedDto;
+import ru.practicum.shareit.request.dto.ItemRequestSummaryDto;
+import ru.practicum.shareit.request.dto.RequestSuggestionDto;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dao.UserDao;
+import ru.practicum.shareit.user.service.UserExistenceService;
 import ru.practicum.shareit.user.model.User;
 
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.stream.Collectors;
 
-import static ru.practicum.shareit.user.service.UserServiceImpl.checkUserAvailability;
-
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
 @Service
 public class ItemRequestServiceImpl implements ItemRequestService {
+    private static final String CURSOR_SEPARATOR = "|";
+
     private final UserDao userDao;
+    private final UserExistenceService userExistence;
     private final ItemRequestDao requestDao;
     private final ItemDao itemDao;
+    private final RequestSuggestionDao suggestionDao;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ItemRequestDto createRequest(Long userId, ItemRequestDto requestDto) {
         User user = userDao.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден."));
@@ -42,17 +58,47 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         ItemRequest request = ItemRequestMapper.toItemRequest(requestDto);
         ItemRequest savedRequest = requestDao.save(request);
         log.info("Добавлен запрос {}", savedRequest);
+        eventPublisher.publishEvent(new ItemRequestCreatedEvent(savedRequest.getId(), savedRequest.getDescription()));
 
         return ItemRequestMapper.doItemRequestDto(savedRequest);
     }
 
     public List<ItemRequestDtoByOwner> findAllUsersRequestsWithReplies(Long userId) {
-        checkUserAvailability(userDao, userId);
+        userExistence.checkUserAvailability(userId);
         List<ItemRequest> requests = requestDao.findAllByRequesterId(userId);
 
         return findAndMap(requests);
     }
 
+    @Transactional(readOnly = true)
+    public List<ItemRequestSummaryDto> findAllUsersRequestsSummary(Long userId, int replies) {
+        if (replies < 0) {
+            throw new NotValidParameterException("Количество ответов не может быть отрицательным.");
+        }
+        userExistence.checkUserAvailability(userId);
+        List<ItemRequest> requests = requestDao.findAllByRequesterId(userId);
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, List<ItemReplyView>> replyViews = itemDao
+                .findLatestRepliesByRequesterId(userId, Math.max(replies, 1)).stream()
+                .collect(Collectors.groupingBy(ItemReplyView::getRequestId));
+
+        return requests.stream()
+                .map(request -> {
+                    List<ItemReplyView> views = replyViews.getOrDefault(request.getId(), Collections.emptyList());
+                    long replyCount = views.isEmpty() ? 0 : views.get(0).getReplyCount();
+                    List<ItemDto> latestReplies = views.stream()
+                            .limit(replies)
+                            .map(view -> new ItemDto(view.getId(), view.getName(), view.getDescription(),
+                                    view.getAvailable(), view.getRequestId()))
+                            .collect(Collectors.toList());
+                    return ItemRequestMapper.doItemRequestSummaryDto(request, replyCount, latestReplies);
+                })
+                .collect(Collectors.toList());
+    }
+
     public List<ItemRequestDtoByOwner> findAll(Long userId, int from, int size) {
         Sort sort = Sort.by(Sort.Direction.DESC, "created");
         PageRequest pageRequest = PageRequest.of(from / size, size, sort);
@@ -61,35 +107,84 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return findAndMap(requests);
     }
 
+    @Transactional(readOnly = true)
+    public ItemRequestFeedDto findFeed(Long userId, String cursor, int size) {
+        if (size < 1) {
+            throw new NotValidParameterException("Размер страницы должен быть положительным.");
+        }
+        userExistence.checkUserAvailability(userId);
+        Pageable page = PageRequest.of(0, size + 1);
+        List<ItemRequest> requests;
+        if (cursor == null || cursor.isBlank()) {
+            requests = requestDao.findFeedPage(userId, page);
+        } else {
+            ItemRequest after = decodeCursor(cursor);
+            requests = requestDao.findFeedPageAfter(userId, after.getCreated(), after.getId(), page);
+        }
+
+        String nextCursor = null;
+        if (requests.size() > size) {
+            requests = requests.subList(0, size);
+            nextCursor = encodeCursor(requests.get(size - 1));
+        }
+        return new ItemRequestFeedDto(findAndMap(requests), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RequestSuggestionDto> findSuggestions(Long userId) {
+        userExistence.checkUserAvailability(userId);
+        return suggestionDao.findAllByOwnerId(userId).stream()
+                .map(ItemRequestMapper::doRequestSuggestionDto)
+                .collect(Collectors.toList());
+    }
+
     public ItemRequestDtoByOwner findByIdWithReplies(Long userId, Long requestId) {
-        checkUserAvailability(userDao, userId);
+        userExistence.checkUserAvailability(userId);
         ItemRequest request = requestDao.findById(requestId).orElseThrow(() -> new NotFoundException("Запрос не найден."));
 
-        List<Item> items = itemDao.findByRequestId(requestId);
-        List<ItemDto> reply = new ArrayList<>();
-        for (Item item : items) {
-            reply.add(ItemMapper.doItemDto(item));
-        }
+        List<ItemDto> reply = itemDao.findRepliesByRequestIdIn(List.of(requestId));
         return ItemRequestMapper.doItemRequestDtoByOwner(request, reply);
     }
 
+    @Transactional(readOnly = true)
+    public String findRequestTag(Long userId, Long requestId) {
+        userExistence.checkUserAvailability(userId);
+        ItemRequest request = requestDao.findById(requestId).orElseThrow(() -> new NotFoundException("Запрос не найден."));
+        return String.format("request-%d-%d-%d", requestId, request.getVersion(), request.getRequester().getVersion());
+    }
+
+    private static String encodeCursor(ItemRequest request) {
+        String position = request.getCreated().truncatedTo(ChronoUnit.MICROS) + CURSOR_SEPARATOR + request.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ItemRequest decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(CURSOR_SEPARATOR);
+            return ItemRequest.builder()
+                    .created(LocalDateTime.parse(position.substring(0, separator)))
+                    .id(Long.parseLong(position.substring(separator + 1)))
+                    .build();
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new NotValidParameterException("Некорректный курсор ленты запросов.");
+        }
+    }
+
     private List<ItemRequestDtoByOwner> findAndMap(List<ItemRequest> requests) {
-        List<ItemDto> itemDtoList = new ArrayList<>();
-        List<ItemRequestDtoByOwner> result = new ArrayList<>();
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
         List<Long> requestIds = requests.stream()
                 .map(ItemRequest::getId)
                 .collect(Collectors.toList());
 
-        List<Item> items = itemDao.findByRequestIdIn(requestIds);
+        Map<Long, List<ItemDto>> replies = itemDao.findRepliesByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
 
-        for (ItemRequest itemRequest : requests) {
-            for (Item item : items) {
-                if (Objects.equals(itemRequest.getId(), item.getRequest().getId())) {
-                    itemDtoList.add(ItemMapper.doItemDto(item));
-                }
-            }
-            result.add(ItemRequestMapper.doItemRequestDtoByOwner(itemRequest, itemDtoList));
-        }
-        return result;
+        return requests.stream()
+                .map(request -> ItemRequestMapper.doItemRequestDtoByOwner(request,
+                        replies.getOrDefault(request.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.deletion.event.UserDeletionScheduledEvent;
+import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.event.ItemCreatedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dao.ItemRequestDao;
+import ru.practicum.shareit.request.dao.RequestSuggestionDao;
+import ru.practicum.shareit.request.dto.OpenRequestView;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.event.ItemRequestRepliesChangedEvent;
+import ru.practicum.shareit.request.matching.RequestTermIndex;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestSuggestion;
+import ru.practicum.shareit.request.model.RequestSuggestionId;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RequestSuggestionListener {
+    private final RequestTermIndex index;
+    private final ItemRequestDao requestDao;
+    private final ItemDao itemDao;
+    private final RequestSuggestionDao suggestionDao;
+
+    @Value("${shareit.matching.max-suggestions:20}")
+    private int maxSuggestions;
+
+    @Value("${shareit.matching.min-score:2}")
+    private int minScore;
+
+    @Value("${shareit.matching.index-batch-size:500}")
+    private int indexBatchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        Pageable page = PageRequest.of(0, indexBatchSize);
+        long afterId = 0;
+        List<OpenRequestView> batch;
+        do {
+            batch = requestDao.findOpenAfter(afterId, page);
+            batch.forEach(request -> index.add(request.getId(), request.getDescription()));
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == indexBatchSize);
+        log.info("Индекс открытых запросов построен, запросов: {}", index.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRequestCreated(ItemRequestCreatedEvent event) {
+        index.add(event.getRequestId(), event.getDescription());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserDeletionScheduled(UserDeletionScheduledEvent event) {
+        event.getRequestIds().forEach(index::remove);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRepliesChanged(ItemRequestRepliesChangedEvent event) {
+        if (event.getRequestIds().isEmpty()) {
+            return;
+        }
+        event.getRequestIds().forEach(index::remove);
+        requestDao.findOpenByIds(event.getRequestIds())
+                .forEach(request -> index.add(request.getId(), request.getDescription()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReplyCreated(ItemCreatedEvent event) {
+        if (event.getRequestId() != null) {
+            index.remove(event.getRequestId());
+        }
+    }
+
+    @EventListener
+    public void onItemCreated(ItemCreatedEvent event) {
+        if (event.getRequestId() != null) {
+            suggestionDao.deleteAnswered(List.of(event.getRequestId()));
+            return;
+        }
+        Map<Long, Integer> scores = index.top(event.getName() + " " + event.getDescription(), maxSuggestions,
+                minScore);
+        if (scores.isEmpty()) {
+            return;
+        }
+        Set<Long> allowed = requestDao.findIdsNotRequestedBy(scores.keySet(), event.getOwnerId());
+        Item item = itemDao.getReferenceById(event.getItemId());
+        LocalDateTime now = LocalDateTime.now();
+        List<RequestSuggestion> suggestions = scores.entrySet().stream()
+                .filter(entry -> allowed.contains(entry.getKey()))
+                .map(entry -> suggest(item, requestDao.getReferenceById(entry.getKey()), entry.getValue(), now))
+                .collect(Collectors.toList());
+        suggestionDao.saveAll(suggestions);
+        log.debug("Для вещи {} найдено запросов: {}", event.getItemId(), suggestions.size());
+    }
+
+    /**
+     * Удаляет предложения для запросов, получивших ответ, в той же транзакции, что и сам ответ.
+     */
+    @EventListener
+    public void onRepliesAssigned(ItemRequestRepliesChangedEvent event) {
+        if (!event.getRequestIds().isEmpty()) {
+            suggestionDao.deleteAnswered(event.getRequestIds());
+        }
+    }
+
+    private static RequestSuggestion suggest(Item item, ItemRequest request, int score, LocalDateTime created) {
+        return new RequestSuggestion(new RequestSuggestionId(item.getId(), request.getId()), item, request,
+                score, created);
+    }
+}
@@ -1,10 +1,18 @@
 package ru.practicum.shareit.user.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.deletion.dto.DeletionTaskDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserExportService;
+import ru.practicum.shareit.user.service.UserProvisioningService;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -12,12 +20,20 @@ import java.util.List;
 @RequestMapping(path = "/users")
 public class UserController {
     private final UserServiceImpl userService;
+    private final UserExportService exportService;
+    private final UserProvisioningService provisioningService;
 
     @PostMapping
     public UserDto createUser(@RequestBody UserDto dto) {
         return userService.createUser(dto);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void provisionUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        provisioningService.provisionUsers(request.getInputStream(), response.getOutputStream());
+    }
+
     @GetMapping("/{id}")
     public UserDto findUserById(@PathVariable long id) {
         return userService.findUserById(id);
@@ -29,12 +45,30 @@ public class UserController {
     }
 
     @DeleteMapping("/{id}")
-    public void removeUserById(@PathVariable long id) {
-        userService.removeUserById(id);
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public DeletionTaskDto removeUserById(@PathVariable long id) {
+        return userService.removeUserById(id);
+    }
+
+    @GetMapping(params = {"!from", "!size", "!afterId"})
+    public void streamAll(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        exportService.writeAllUsers(response.getOutputStream());
     }
 
     @GetMapping
-    public List<UserDto> findAll() {
-        return userService.findAll();
+    public List<UserDto> findAll(@RequestParam(defaultValue = "0") int from,
+                                 @RequestParam(defaultValue = "10") int size,
+                                 @RequestParam(required = false) Long afterId) {
+        if (afterId != null) {
+            return userService.findAllAfter(afterId, size);
+        }
+        return userService.findAll(from, size);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportUsers(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        exportService.exportUsers(response.getOutputStream());
     }
 }
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserProvisioningResultDto {
+    private long line;
+
+    private Status status;
+
+    private Long id;
+
+    private String email;
+
+    private String error;
+
+    public static UserProvisioningResultDto created(long line, long id, String email) {
+        return new UserProvisioningResultDto(line, Status.CREATED, id, email, null);
+    }
+
+    public static UserProvisioningResultDto duplicate(long line, Long id, String email) {
+        return new UserProvisioningResultDto(line, Status.DUPLICATE, id, email, null);
+    }
+
+    public static UserProvisioningResultDto rejected(long line, String email, String error) {
+        return new UserProvisioningResultDto(line, Status.REJECTED, null, email, error);
+    }
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        REJECTED
+    }
+}
@@ -16,7 +16,8 @@ public class UserMapper {
         return new User(
                 dto.getId(),
                 dto.getName(),
-                dto.getEmail()
+                dto.getEmail(),
+                null
         );
     }
 }
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.user.service;
+
+public interface UserExistenceService {
+    boolean exists(long userId);
+
+    void checkUserAvailability(long userId);
+
+    void registerUser(long userId);
+
+    void evictUser(long userId);
+}
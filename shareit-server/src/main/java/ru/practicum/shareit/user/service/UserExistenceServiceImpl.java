@@ -0,0 +1,175 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.user.dao.UserDao;
+import ru.practicum.shareit.user.existence.BloomFilter;
+import ru.practicum.shareit.user.model.User;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class UserExistenceServiceImpl implements UserExistenceService, PostInsertEventListener,
+        PostDeleteEventListener {
+    private final UserDao userDao;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final Cache<Long, Boolean> positives;
+    private volatile BloomFilter filter;
+    private volatile BloomFilter pending;
+    private volatile BloomFilter previous;
+
+    public UserExistenceServiceImpl(UserDao userDao, TransactionTemplate transactionTemplate,
+                                    EntityManagerFactory entityManagerFactory,
+                                    @Value("${shareit.users.bloom.expected-users:1000000}") long expectedUsers,
+                                    @Value("${shareit.users.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+                                    @Value("${shareit.users.positive-cache.max-size:100000}") long positiveCacheSize,
+                                    @Value("${shareit.users.positive-cache.ttl:PT1M}") Duration positiveCacheTtl) {
+        this.userDao = userDao;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.positives = Caffeine.newBuilder()
+                .maximumSize(positiveCacheSize)
+                .expireAfterWrite(positiveCacheTtl)
+                .build();
+    }
+
+    @PostConstruct
+    public void init() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        filter = new BloomFilter(expectedUsers, falsePositiveRate);
+        load(filter);
+    }
+
+    @Override
+    public boolean exists(long userId) {
+        if (!mightContain(userId)) {
+            return false;
+        }
+        if (positives.getIfPresent(userId) != null) {
+            return true;
+        }
+        boolean exists = userDao.existsById(userId);
+        if (exists) {
+            afterCommit(() -> positives.put(userId, Boolean.TRUE));
+        }
+        return exists;
+    }
+
+    @Override
+    public void checkUserAvailability(long userId) {
+        if (!exists(userId)) {
+            throw new UserNotFoundException("Пользователь с запрашиваемым айди не зарегистрирован.");
+        }
+    }
+
+    @Override
+    public void registerUser(long userId) {
+        filter.put(userId);
+        BloomFilter next = pending;
+        if (next != null) {
+            next.put(userId);
+        }
+    }
+
+    @Override
+    public void evictUser(long userId) {
+        positives.invalidate(userId);
+        afterCommit(() -> positives.invalidate(userId));
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof User) {
+            registerUser((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof User) {
+            evictUser((Long) event.getId());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * Перестраивает переполненный фильтр. Пользователь, вставленный до начала перестроения, но зафиксированный
+     * после снимка, попадает только в прежний фильтр, поэтому тот отвечает вместе с новым до следующей
+     * проверки, а перед его удалением новый фильтр дозаполняется повторным проходом по таблице.
+     */
+    @Scheduled(fixedDelayString = "${shareit.users.bloom.check-interval:PT10M}")
+    public void rebuildIfSaturated() {
+        if (previous != null) {
+            load(filter);
+            previous = null;
+        }
+        BloomFilter current = filter;
+        if (current.isSaturated()) {
+            BloomFilter next = new BloomFilter(current.getSize() * 2, falsePositiveRate);
+            pending = next;
+            load(next);
+            previous = current;
+            filter = next;
+            pending = null;
+        }
+    }
+
+    private boolean mightContain(long userId) {
+        if (filter.mightContain(userId)) {
+            return true;
+        }
+        BloomFilter old = previous;
+        return old != null && old.mightContain(userId);
+    }
+
+    private void load(BloomFilter target) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Long> ids = userDao.streamAllIds()) {
+                ids.forEach(target::put);
+            }
+        });
+        log.info("Фильтр пользователей заполнен, пользователей: {}", target.getSize());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
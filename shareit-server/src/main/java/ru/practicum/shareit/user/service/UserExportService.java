@@ -0,0 +1,10 @@
+package ru.practicum.shareit.user.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface UserExportService {
+    void exportUsers(OutputStream out) throws IOException;
+
+    void writeAllUsers(OutputStream out) throws IOException;
+}
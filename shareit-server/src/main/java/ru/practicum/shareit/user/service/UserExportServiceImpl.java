@@ -0,0 +1,77 @@
+package ru.practicum.shareit.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UserExportServiceImpl implements UserExportService {
+    private static final int FETCH_SIZE = 1000;
+    private static final String SELECT_USERS = "SELECT user_id, user_name, user_email FROM users " +
+            "WHERE deleted = false ORDER BY user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void exportUsers(OutputStream out) throws IOException {
+        write(out, false);
+    }
+
+    @Override
+    public void writeAllUsers(OutputStream out) throws IOException {
+        write(out, true);
+    }
+
+    private void write(OutputStream out, boolean array) throws IOException {
+        long[] exported = {0};
+        if (array) {
+            out.write('[');
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_USERS,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, rs -> {
+                UserDto user = new UserDto(rs.getLong("user_id"), rs.getString("user_name"),
+                        rs.getString("user_email"));
+                try {
+                    if (array && exported[0] > 0) {
+                        out.write(',');
+                    }
+                    out.write(objectMapper.writeValueAsBytes(user));
+                    if (!array) {
+                        out.write('\n');
+                    }
+                    if (++exported[0] % FETCH_SIZE == 0) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (array) {
+            out.write(']');
+        }
+        out.flush();
+        log.info("Выгружено пользователей: {}.", exported[0]);
+    }
+}
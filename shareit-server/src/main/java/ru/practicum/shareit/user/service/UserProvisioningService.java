@@ -0,0 +1,9 @@
+package ru.practicum.shareit.user.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface UserProvisioningService {
+    void provisionUsers(InputStream in, OutputStream out) throws IOException;
+}
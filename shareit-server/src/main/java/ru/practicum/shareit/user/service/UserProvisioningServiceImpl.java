@@ -0,0 +1,260 @@
+package ru.practicum.shareit.user.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.NotValidParameterException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserProvisioningResultDto;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.regex.Pattern;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UserProvisioningServiceImpl implements UserProvisioningService {
+    private static final int CHUNK_SIZE = 10_000;
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final String STAGING_COLUMNS = "(line BIGINT NOT NULL, user_name VARCHAR NOT NULL, " +
+            "user_email VARCHAR NOT NULL)";
+    private static final String CREATE_STAGING_POSTGRES = "CREATE TEMPORARY TABLE IF NOT EXISTS users_staging " +
+            STAGING_COLUMNS + " ON COMMIT DELETE ROWS";
+    private static final String CREATE_STAGING_H2 = "CREATE LOCAL TEMPORARY TABLE IF NOT EXISTS users_staging " +
+            STAGING_COLUMNS + " TRANSACTIONAL";
+    private static final String CLEAR_STAGING = "DELETE FROM users_staging";
+    private static final String COPY_STAGING = "COPY users_staging (line, user_name, user_email) " +
+            "FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT_STAGING = "INSERT INTO users_staging (line, user_name, user_email) " +
+            "VALUES (?, ?, ?)";
+    private static final String SELECT_STAGED = "SELECT s.line, u.user_id FROM users_staging s " +
+            "JOIN users u ON u.user_email = s.user_email";
+    private static final String INSERT_USERS = "INSERT INTO users (user_name, user_email) " +
+            "SELECT s.user_name, s.user_email FROM users_staging s " +
+            "WHERE NOT EXISTS (SELECT 1 FROM users u WHERE u.user_email = s.user_email) ORDER BY s.line";
+    private static final String ON_CONFLICT = " ON CONFLICT (user_email) DO NOTHING";
+
+    private final UserExistenceService userExistence;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void provisionUsers(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        long lineNumber = 0;
+        long created = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                UserDto dto = validate(parseJson(line));
+                chunk.add(new Row(lineNumber, dto.getName().trim(), dto.getEmail().trim(), null));
+            } catch (NotValidParameterException e) {
+                chunk.add(new Row(lineNumber, null, null, e.getMessage()));
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+                created += flush(chunk, out);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += flush(chunk, out);
+        }
+        log.info("Создано пользователей при массовой загрузке: {}.", created);
+    }
+
+    private int flush(List<Row> chunk, OutputStream out) throws IOException {
+        Map<String, Row> firstByEmail = new HashMap<>();
+        List<Row> staged = new ArrayList<>();
+        for (Row row : chunk) {
+            if (row.getError() != null) {
+                continue;
+            }
+            Row first = firstByEmail.putIfAbsent(row.getEmail(), row);
+            if (first == null) {
+                staged.add(row);
+            } else {
+                row.setDuplicateOf(first);
+            }
+        }
+
+        int created = 0;
+        if (!staged.isEmpty()) {
+            try {
+                created = transactionTemplate.execute(status ->
+                        jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> stage(connection, staged)));
+            } catch (DataAccessException e) {
+                log.error("Не удалось сохранить пользователей из строк {}-{}: {}", chunk.get(0).getLine(),
+                        chunk.get(chunk.size() - 1).getLine(), e.getMessage());
+                staged.forEach(row -> row.setError("Не удалось сохранить пользователя."));
+            }
+        }
+        if (created > 0) {
+            staged.stream()
+                    .filter(Row::isCreated)
+                    .forEach(row -> userExistence.registerUser(row.getId()));
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        }
+
+        for (Row row : chunk) {
+            write(out, result(row));
+        }
+        out.flush();
+        return created;
+    }
+
+    private int stage(Connection connection, List<Row> staged) throws SQLException {
+        boolean postgres = connection.isWrapperFor(PGConnection.class);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(postgres ? CREATE_STAGING_POSTGRES : CREATE_STAGING_H2);
+            statement.executeUpdate(CLEAR_STAGING);
+        }
+        if (postgres) {
+            copy(connection.unwrap(PGConnection.class), staged);
+        } else {
+            batchInsert(connection, staged);
+        }
+
+        Map<Long, Row> byLine = new HashMap<>();
+        staged.forEach(row -> byLine.put(row.getLine(), row));
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery(SELECT_STAGED)) {
+                while (rs.next()) {
+                    byLine.get(rs.getLong(1)).setId(rs.getLong(2));
+                }
+            }
+            int created = statement.executeUpdate(postgres ? INSERT_USERS + ON_CONFLICT : INSERT_USERS);
+            try (ResultSet rs = statement.executeQuery(SELECT_STAGED)) {
+                while (rs.next()) {
+                    Row row = byLine.get(rs.getLong(1));
+                    if (row.getId() == null) {
+                        row.setId(rs.getLong(2));
+                        row.setCreated(true);
+                    }
+                }
+            }
+            return created;
+        }
+    }
+
+    private static void copy(PGConnection connection, List<Row> staged) throws SQLException {
+        StringBuilder csv = new StringBuilder(staged.size() * 64);
+        for (Row row : staged) {
+            csv.append(row.getLine()).append(',');
+            appendCsv(csv, row.getName()).append(',');
+            appendCsv(csv, row.getEmail()).append('\n');
+        }
+        try {
+            connection.getCopyAPI().copyIn(COPY_STAGING, new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new SQLException(e);
+        }
+    }
+
+    private static StringBuilder appendCsv(StringBuilder csv, String value) {
+        return csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static void batchInsert(Connection connection, List<Row> staged) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_STAGING)) {
+            for (Row row : staged) {
+                statement.setLong(1, row.getLine());
+                statement.setString(2, row.getName());
+                statement.setString(3, row.getEmail());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static UserProvisioningResultDto result(Row row) {
+        if (row.getError() != null) {
+            return UserProvisioningResultDto.rejected(row.getLine(), row.getEmail(), row.getError());
+        }
+        if (row.getDuplicateOf() != null) {
+            Row first = row.getDuplicateOf();
+            if (first.getError() != null) {
+                return UserProvisioningResultDto.rejected(row.getLine(), row.getEmail(), first.getError());
+            }
+            return UserProvisioningResultDto.duplicate(row.getLine(), first.getId(), row.getEmail());
+        }
+        if (row.isCreated()) {
+            return UserProvisioningResultDto.created(row.getLine(), row.getId(), row.getEmail());
+        }
+        return UserProvisioningResultDto.duplicate(row.getLine(), row.getId(), row.getEmail());
+    }
+
+    private void write(OutputStream out, UserProvisioningResultDto result) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(result));
+        out.write('\n');
+    }
+
+    private UserDto parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, UserDto.class);
+        } catch (JsonProcessingException e) {
+            throw new NotValidParameterException("Некорректный формат строки.");
+        }
+    }
+
+    private static UserDto validate(UserDto dto) {
+        if (dto.getName() == null || dto.getName().isBlank()) {
+            throw new NotValidParameterException("Имя пользователя не указано.");
+        }
+        if (dto.getEmail() == null || dto.getEmail().isBlank()) {
+            throw new NotValidParameterException("Почтовый адрес пустой.");
+        }
+        if (!EMAIL.matcher(dto.getEmail().trim()).matches()) {
+            throw new NotValidParameterException("Почтовый адрес не соответствует требованиям.");
+        }
+        return dto;
+    }
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    private static class Row {
+        private final long line;
+
+        private final String name;
+
+        private final String email;
+
+        private String error;
+
+        private Long id;
+
+        private boolean created;
+
+        private Row duplicateOf;
+
+        Row(long line, String name, String email, String error) {
+            this(line, name, email, error, null, false, null);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.deletion.dto.DeletionTaskDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -11,7 +12,9 @@ public interface UserService {
 
     UserDto updateUser(UserDto dto, long id);
 
-    void removeUserById(long id);
+    DeletionTaskDto removeUserById(long id);
 
-    List<UserDto> findAll();
+    List<UserDto> findAll(int from, int size);
+
+    List<UserDto> findAllAfter(long afterId, int size);
 }
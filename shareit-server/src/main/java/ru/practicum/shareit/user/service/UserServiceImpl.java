@@ -2,8 +2,12 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.deletion.dto.DeletionTaskDto;
+import ru.practicum.shareit.deletion.service.DeletionService;
 import ru.practicum.shareit.exception.AlreadyExistException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dao.UserDao;
@@ -19,7 +23,10 @@ import java.util.stream.Collectors;
 @Transactional
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final Sort SORT_BY_ID = Sort.by(Sort.Direction.ASC, "id");
+
     private final UserDao userDao;
+    private final DeletionService deletionService;
 
     @Override
     public UserDto createUser(UserDto dto) {
@@ -61,24 +68,29 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public void removeUserById(long id) {
-        userDao.deleteById(id);
-        log.info("Пользователь с айди успешно удален {}.", id);
+    public DeletionTaskDto removeUserById(long id) {
+        DeletionTaskDto task = deletionService.scheduleUserDeletion(id);
+        log.info("Пользователь с айди {} поставлен в очередь на удаление, задача {}.", id, task.getId());
+        return task;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<UserDto> findAll() {
-        List<UserDto> users = userDao.findAll().stream()
+    public List<UserDto> findAll(int from, int size) {
+        List<UserDto> users = userDao.findAllBy(PageRequest.of(from / size, size, SORT_BY_ID)).stream()
                 .map(UserMapper::doUserDto)
                 .collect(Collectors.toList());
-        log.info("Всё пользователи успешно получены.");
+        log.info("Получены пользователи начиная с {}, количество {}.", from, users.size());
         return users;
     }
 
-    public static void checkUserAvailability(UserDao dao, long id) {
-        if (!dao.existsById(id)) {
-            throw new NotFoundException("Пользователь с запрашиваемым айди не зарегистрирован.");
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDto> findAllAfter(long afterId, int size) {
+        List<UserDto> users = userDao.findAllByIdGreaterThan(afterId, PageRequest.of(0, size, SORT_BY_ID)).stream()
+                .map(UserMapper::doUserDto)
+                .collect(Collectors.toList());
+        log.info("Получены пользователи после айди {}, количество {}.", afterId, users.size());
+        return users;
     }
 }
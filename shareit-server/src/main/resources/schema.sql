@@ -1,10 +1,12 @@
-DROP TABLE IF EXISTS users,requests,items,bookings,comments;
+DROP TABLE IF EXISTS users,requests,items,bookings,comments,comment_eligibility,request_suggestions,deletion_tasks;
 
 CREATE TABLE IF NOT EXISTS users
 (
     user_id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY UNIQUE,
     user_name    VARCHAR         NOT NULL,
-    user_email   VARCHAR   NOT NULL UNIQUE
+    user_email   VARCHAR   UNIQUE,
+    deleted      BOOLEAN   NOT NULL DEFAULT FALSE,
+    version      BIGINT    NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS requests
@@ -12,7 +14,8 @@ CREATE TABLE IF NOT EXISTS requests
     request_id    BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY UNIQUE,
     request_description   VARCHAR       ,
     creation_time TIMESTAMP WITHOUT TIME ZONE ,
-    requester_id  BIGINT REFERENCES users (user_id)
+    requester_id  BIGINT REFERENCES users (user_id),
+    version       BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS items
@@ -22,8 +25,9 @@ CREATE TABLE IF NOT EXISTS items
     item_description  VARCHAR NOT NULL,
     is_available BOOLEAN       NOT NULL,
     owner_id     BIGINT REFERENCES users (user_id),
-    request_id   BIGINT REFERENCES requests (request_id)
-
+    request_id   BIGINT REFERENCES requests (request_id),
+    deleted      BOOLEAN       NOT NULL DEFAULT FALSE,
+    version      BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS bookings
@@ -33,7 +37,8 @@ CREATE TABLE IF NOT EXISTS bookings
     end_time   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id    BIGINT REFERENCES items (item_id),
     booker_id  BIGINT REFERENCES users (user_id),
-    status     VARCHAR(50)
+    status     VARCHAR(50),
+    version    BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS comments
@@ -43,4 +48,52 @@ CREATE TABLE IF NOT EXISTS comments
     author_id  BIGINT REFERENCES users (user_id),
     item_id    BIGINT REFERENCES items (item_id),
     created    TIMESTAMP WITHOUT TIME ZONE NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS requests_created_id_idx ON requests (creation_time DESC, request_id DESC);
+
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id, item_id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_item_idx ON bookings (booker_id, item_id);
+
+CREATE INDEX IF NOT EXISTS bookings_item_idx ON bookings (item_id);
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS requests_requester_idx ON requests (requester_id);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS comments_author_idx ON comments (author_id);
+
+CREATE TABLE IF NOT EXISTS comment_eligibility
+(
+    booker_id    BIGINT REFERENCES users (user_id) ON DELETE CASCADE,
+    item_id      BIGINT REFERENCES items (item_id) ON DELETE CASCADE,
+    earliest_end TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    PRIMARY KEY (booker_id, item_id)
+);
+
+CREATE TABLE IF NOT EXISTS request_suggestions
+(
+    item_id    BIGINT REFERENCES items (item_id) ON DELETE CASCADE,
+    request_id BIGINT REFERENCES requests (request_id) ON DELETE CASCADE,
+    score      INTEGER NOT NULL,
+    created    TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    PRIMARY KEY (item_id, request_id)
+);
+
+CREATE TABLE IF NOT EXISTS deletion_tasks
+(
+    task_id     BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY UNIQUE,
+    target      VARCHAR(10) NOT NULL,
+    entity_id   BIGINT      NOT NULL,
+    status      VARCHAR(10) NOT NULL,
+    removed     BIGINT      NOT NULL DEFAULT 0,
+    attempts    INTEGER     NOT NULL DEFAULT 0,
+    error       VARCHAR,
+    created     TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    updated     TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS deletion_tasks_status_idx ON deletion_tasks (status, task_id);
@@ -11,11 +11,14 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dao.CommentEligibilityDao;
+import ru.practicum.shareit.item.model.CommentEligibilityId;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @Transactional
@@ -30,11 +33,15 @@ public class BookingIntegrationTest {
     @Autowired
     private BookingDao bookingDao;
 
+    @Autowired
+    private CommentEligibilityDao eligibilityDao;
+
     private final LocalDateTime now = LocalDateTime.now();
 
     private User owner;
     private User booker;
     private Item item1;
+    private Booking booking1;
     private Booking booking2;
     private Booking booking3;
 
@@ -56,7 +63,7 @@ public class BookingIntegrationTest {
                 .owner(owner).build();
         em.persist(item2);
 
-        Booking booking1 = Booking.builder()
+        booking1 = Booking.builder()
                 .item(item1).booker(booker).status(BookingStatus.APPROVED)
                 .start(now.minusDays(1)).end(now.plusDays(1))
                 .build();
@@ -98,6 +105,57 @@ public class BookingIntegrationTest {
         Assertions.assertThat(retrievedBooking.getStatus()).isEqualTo(BookingStatus.WAITING);
         Assertions.assertThat(retrievedBooking.getBooker().getId()).isEqualTo(userId);
         Assertions.assertThat(retrievedBooking.getItem().getId()).isEqualTo(itemId);
+        Assertions.assertThat(eligibilityDao.findById(new CommentEligibilityId(userId, itemId)))
+                .hasValueSatisfying(eligibility -> Assertions.assertThat(eligibility.getEarliestEnd())
+                        .isCloseTo(newBooking.getEnd(), Assertions.within(1, ChronoUnit.MILLIS)));
+    }
+
+    @Test
+    void rejectBookingUpdatesCommentEligibility() {
+        Long userId = booker.getId();
+        Long itemId = item1.getId();
+        BookingOutputDto first = bookingService.createBooking(BookingDto.builder()
+                .itemId(itemId)
+                .start(now.plusDays(2)).end(now.plusDays(3))
+                .build(), userId);
+        bookingService.createBooking(BookingDto.builder()
+                .itemId(itemId)
+                .start(now.plusDays(4)).end(now.plusDays(5))
+                .build(), userId);
+        CommentEligibilityId id = new CommentEligibilityId(userId, itemId);
+
+        bookingService.confirmBookingByOwner(owner.getId(), first.getId(), false);
+        Assertions.assertThat(eligibilityDao.findById(id).orElseThrow().getEarliestEnd())
+                .isCloseTo(booking1.getEnd(), Assertions.within(1, ChronoUnit.MILLIS));
+
+        bookingService.confirmBookingByOwner(owner.getId(), booking1.getId(), false);
+        bookingService.confirmBookingByOwner(owner.getId(), booking2.getId(), false);
+        em.flush();
+        em.clear();
+        Assertions.assertThat(eligibilityDao.findById(id).orElseThrow().getEarliestEnd())
+                .isCloseTo(now.plusDays(5), Assertions.within(1, ChronoUnit.MILLIS));
+    }
+
+    @Test
+    void repeatedBookingsKeepEarliestCommentEligibility() {
+        Long userId = booker.getId();
+        Long itemId = item1.getId();
+        bookingService.createBooking(BookingDto.builder()
+                .itemId(itemId)
+                .start(now.plusDays(6)).end(now.plusDays(8))
+                .build(), userId);
+        bookingService.createBooking(BookingDto.builder()
+                .itemId(itemId)
+                .start(now.plusDays(2)).end(now.plusDays(3))
+                .build(), userId);
+        bookingService.createBooking(BookingDto.builder()
+                .itemId(itemId)
+                .start(now.plusDays(10)).end(now.plusDays(12))
+                .build(), userId);
+
+        Assertions.assertThat(eligibilityDao.findById(new CommentEligibilityId(userId, itemId)).orElseThrow()
+                        .getEarliestEnd())
+                .isCloseTo(now.plusDays(3), Assertions.within(1, ChronoUnit.MILLIS));
     }
 
     @Test
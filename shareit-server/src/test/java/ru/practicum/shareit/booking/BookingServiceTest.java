@@ -6,9 +6,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.booking.dao.BookingDao;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.event.BookingCreatedEvent;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.exception.NotAccessException;
@@ -18,6 +20,7 @@ import ru.practicum.shareit.item.dao.ItemDao;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dao.UserDao;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceService;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -36,9 +39,15 @@ public class BookingServiceTest {
     @Mock
     private UserDao userDao;
 
+    @Mock
+    private UserExistenceService userExistence;
+
     @Mock
     private ItemDao itemDao;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookingServiceImpl service;
 
@@ -89,7 +98,6 @@ public class BookingServiceTest {
 
     @Test
     void succeedCreateBooking() {
-        when(userDao.existsById(anyLong())).thenReturn(true);
         when(itemDao.findById(anyLong())).thenReturn(Optional.ofNullable(item));
         when(bookingDao.save(any())).thenReturn(booking);
 
@@ -97,11 +105,11 @@ public class BookingServiceTest {
 
         assertNotNull(bookingOutDto);
         assertEquals(booking.getId(), bookingOutDto.getId());
+        verify(eventPublisher, times(1)).publishEvent(any(BookingCreatedEvent.class));
     }
 
 //    @Test
 //    void createBookingFailByValidationPeriod() {
-//        when(userDao.existsById(anyLong())).thenReturn(true);
 //        bookingToSave.setStart(booking.getEnd());
 //        bookingToSave.setEnd(booking.getStart());
 //
@@ -116,7 +124,7 @@ public class BookingServiceTest {
     void createBookingFailByUserNotFound() {
         long userNotFoundId = 0L;
         String error = "Пользователь с запрашиваемым айди не зарегистрирован.";
-        when(userDao.existsById(anyLong())).thenReturn(false);
+        doThrow(new NotFoundException(error)).when(userExistence).checkUserAvailability(anyLong());
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -132,7 +140,6 @@ public class BookingServiceTest {
         long itemNotFoundId = 0L;
         bookingToSave.setItemId(itemNotFoundId);
 
-        when(userDao.existsById(anyLong())).thenReturn(true);
         when(itemDao.findById(itemNotFoundId)).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(
@@ -145,7 +152,6 @@ public class BookingServiceTest {
     @Test
     void createBookingFailByItemNotAvailable() {
         item.setAvailable(false);
-        when(userDao.existsById(anyLong())).thenReturn(true);
         when(itemDao.findById(anyLong())).thenReturn(Optional.ofNullable(item));
 
         NotValidParameterException exception = assertThrows(
@@ -156,7 +162,6 @@ public class BookingServiceTest {
 
         item.setAvailable(true);
         item.setOwner(booker);
-        when(userDao.existsById(anyLong())).thenReturn(true);
         when(itemDao.findById(anyLong())).thenReturn(Optional.ofNullable(item));
 
         NotFoundException e = assertThrows(
@@ -168,7 +173,6 @@ public class BookingServiceTest {
 
     @Test
     void succeedConfirmBookingByOwner() {
-        when(userDao.existsById(anyLong())).thenReturn(true);
         when(bookingDao.findById(anyLong())).thenReturn(Optional.ofNullable(booking));
         when(bookingDao.save(any())).thenReturn(booking);
         when(itemDao.existsById(anyLong())).thenReturn(true);
@@ -189,7 +193,6 @@ public class BookingServiceTest {
 
     @Test
     void confirmBookingByOwnerFailByBookingNotFound() {
-        when(userDao.existsById(anyLong())).thenReturn(true);
         when(bookingDao.findById(anyLong())).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(
@@ -203,7 +206,6 @@ public class BookingServiceTest {
 
     @Test
     void confirmBookingByOwnerFailByNotValidParameter() {
-        when(userDao.existsById(anyLong())).thenReturn(true);
         when(bookingDao.findById(anyLong())).thenReturn(Optional.of(booking));
         when(itemDao.existsById(anyLong())).thenReturn(true);
         when(itemDao.getReferenceById(anyLong())).thenReturn(item);
@@ -267,7 +269,6 @@ public class BookingServiceTest {
         int from = 0;
         int size = 1;
         long userId = booker.getId();
-        when(userDao.existsById(anyLong())).thenReturn(true);
 
         //State All
         when(bookingDao.findByBookerIdOrderByStartDesc(anyLong(), any())).thenReturn(List.of(booking));
@@ -329,7 +330,6 @@ public class BookingServiceTest {
         int from = 0;
         int size = 1;
         long userId = booker.getId();
-        when(userDao.existsById(anyLong())).thenReturn(true);
         when(itemDao.findItemsByOwnerId(anyLong())).thenReturn(List.of(item));
 
         //State All
@@ -391,7 +391,6 @@ public class BookingServiceTest {
     @Test
     void findAllBookingsForItemsFailByUserWithoutItems() {
         String error = "У пользователя нет вещей.";
-        when(userDao.existsById(anyLong())).thenReturn(true);
         when(itemDao.findItemsByOwnerId(anyLong())).thenThrow(new NotFoundException(error));
 
         NotFoundException exception = assertThrows(
@@ -0,0 +1,200 @@
+package ru.practicum.shareit.deletion;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.deletion.dto.DeletionTaskDto;
+import ru.practicum.shareit.deletion.model.DeletionStatus;
+import ru.practicum.shareit.deletion.model.DeletionTarget;
+import ru.practicum.shareit.deletion.service.DeletionService;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentEligibility;
+import ru.practicum.shareit.item.model.CommentEligibilityId;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dao.ItemRequestDao;
+import ru.practicum.shareit.request.event.ItemRequestRepliesChangedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dao.UserDao;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserProvisioningService;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Transactional
+@SpringBootTest
+@RecordApplicationEvents
+public class DeletionIntegrationTest {
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private DeletionService deletionService;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private ItemDao itemDao;
+
+    @Autowired
+    private BookingDao bookingDao;
+
+    @Autowired
+    private ItemRequestDao requestDao;
+
+    @Autowired
+    private UserProvisioningService provisioningService;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private User owner;
+    private User renter;
+    private Item table;
+    private Item lamp;
+    private ItemRequest request;
+
+    @BeforeEach
+    void setUp() {
+        owner = User.builder().name("owner").email("owner@example.com").build();
+        em.persist(owner);
+        renter = User.builder().name("renter").email("renter@example.com").build();
+        em.persist(renter);
+        request = ItemRequest.builder().description("lamp").requester(owner).created(now).build();
+        em.persist(request);
+        table = Item.builder().name("table").description("black table").available(true).owner(owner).build();
+        em.persist(table);
+        lamp = Item.builder().name("lamp").description("desk lamp").available(true).owner(renter)
+                .request(request).build();
+        em.persist(lamp);
+        Booking rental = Booking.builder()
+                .item(table).booker(renter).status(BookingStatus.APPROVED)
+                .start(now.minusDays(5)).end(now.minusDays(4))
+                .build();
+        em.persist(rental);
+        em.persist(Booking.builder()
+                .item(lamp).booker(owner).status(BookingStatus.WAITING)
+                .start(now.plusDays(1)).end(now.plusDays(2))
+                .build());
+        em.persist(new CommentEligibility(new CommentEligibilityId(renter.getId(), table.getId()), rental.getEnd()));
+        em.persist(Comment.builder().text("good table").item(table).author(renter).created(now).build());
+        em.flush();
+    }
+
+    @Test
+    void removeUserHidesUserImmediatelyAndPurgesInBackground() {
+        DeletionTaskDto task = userService.removeUserById(owner.getId());
+        em.clear();
+
+        Assertions.assertThat(task.getTarget()).isEqualTo(DeletionTarget.USER);
+        Assertions.assertThat(task.getStatus()).isEqualTo(DeletionStatus.PENDING);
+        Assertions.assertThat(userDao.findById(owner.getId())).isNotPresent();
+        Assertions.assertThat(itemDao.findById(table.getId())).isNotPresent();
+        Assertions.assertThat(requestDao.findById(request.getId())).isNotPresent();
+        Assertions.assertThat(bookingDao.findAll()).isEmpty();
+        Assertions.assertThat(itemDao.findById(lamp.getId())).isPresent();
+        Assertions.assertThat(count("SELECT COUNT(*) FROM users WHERE user_id = ?", owner.getId())).isEqualTo(1);
+
+        deletionService.processPending();
+        em.clear();
+
+        Assertions.assertThat(count("SELECT COUNT(*) FROM users WHERE user_id = ?", owner.getId())).isZero();
+        Assertions.assertThat(count("SELECT COUNT(*) FROM items WHERE owner_id = ?", owner.getId())).isZero();
+        Assertions.assertThat(count("SELECT COUNT(*) FROM requests WHERE requester_id = ?", owner.getId())).isZero();
+        Assertions.assertThat(count("SELECT COUNT(*) FROM bookings")).isZero();
+        Assertions.assertThat(count("SELECT COUNT(*) FROM comments")).isZero();
+        Assertions.assertThat(itemDao.findById(lamp.getId()).orElseThrow().getRequest()).isNull();
+
+        DeletionTaskDto finished = deletionService.findTask(task.getId());
+        Assertions.assertThat(finished.getStatus()).isEqualTo(DeletionStatus.COMPLETED);
+        Assertions.assertThat(finished.getRemoved()).isEqualTo(7);
+    }
+
+    @Test
+    void removeItemKeepsOwner() {
+        DeletionTaskDto task = itemService.removeItemById(owner.getId(), table.getId());
+        em.clear();
+
+        Assertions.assertThat(itemDao.findById(table.getId())).isNotPresent();
+        Assertions.assertThat(bookingDao.findByBookerIdOrderByStartDesc(renter.getId(), PageRequest.of(0, 10)))
+                .isEmpty();
+
+        deletionService.processPending();
+        em.clear();
+
+        Assertions.assertThat(count("SELECT COUNT(*) FROM items WHERE item_id = ?", table.getId())).isZero();
+        Assertions.assertThat(count("SELECT COUNT(*) FROM comments")).isZero();
+        Assertions.assertThat(userDao.findById(owner.getId())).isPresent();
+        Assertions.assertThat(deletionService.findTask(task.getId()).getStatus())
+                .isEqualTo(DeletionStatus.COMPLETED);
+    }
+
+    @Test
+    void removeUserFreesEmail() throws IOException {
+        userService.removeUserById(owner.getId());
+        em.clear();
+
+        UserDto recreated = userService.createUser(UserDto.builder().name("owner").email("owner@example.com").build());
+        Assertions.assertThat(recreated.getId()).isNotEqualTo(owner.getId());
+
+        userService.removeUserById(recreated.getId());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        provisioningService.provisionUsers(new ByteArrayInputStream(
+                "{\"name\":\"owner\",\"email\":\"owner@example.com\"}\n".getBytes(StandardCharsets.UTF_8)), out);
+        Assertions.assertThat(out.toString(StandardCharsets.UTF_8)).contains("CREATED");
+    }
+
+    @Test
+    void removeItemReopensAnsweredRequest() {
+        itemService.removeItemById(renter.getId(), lamp.getId());
+        em.clear();
+
+        Assertions.assertThat(events.stream(ItemRequestRepliesChangedEvent.class))
+                .anySatisfy(event -> Assertions.assertThat(event.getRequestIds()).containsExactly(request.getId()));
+        Assertions.assertThat(requestDao.findOpenByIds(List.of(request.getId())))
+                .extracting(ItemRequest::getId)
+                .containsExactly(request.getId());
+    }
+
+    @Test
+    void findUnknownTask() {
+        Assertions.assertThatThrownBy(() -> deletionService.findTask(Long.MAX_VALUE))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
@@ -7,23 +7,30 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.constants.Request;
 import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoByOwner;
+import ru.practicum.shareit.item.service.ItemImportService;
+import ru.practicum.shareit.item.service.ItemPopularityService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -40,6 +47,12 @@ public class ItemControllerTest {
     @MockBean
     private ItemServiceImpl itemService;
 
+    @MockBean
+    private ItemImportService importService;
+
+    @MockBean
+    private ItemPopularityService popularityService;
+
     private final ItemDto itemDto = ItemDto.builder()
             .id(1L)
             .name("table")
@@ -122,6 +135,108 @@ public class ItemControllerTest {
                 );
     }
 
+    @Test
+    void findByIdItemNotModified() throws Exception {
+        when(itemService.findItemTag(anyLong())).thenReturn("item-2-0");
+
+        mockMvc.perform(get(URL + "/2")
+                        .header(Request.USER_ID, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"item-2-0\""))
+                .andExpectAll(
+                        status().isNotModified(),
+                        header().string(HttpHeaders.ETAG, "\"item-2-0\"")
+                );
+        verify(itemService, never()).findItemById(anyLong(), anyLong());
+
+        when(itemService.findItemTag(anyLong())).thenReturn("item-2-1");
+        when(itemService.findItemById(anyLong(), anyLong())).thenReturn(itemDtoByOwner);
+
+        mockMvc.perform(get(URL + "/2")
+                        .header(Request.USER_ID, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"item-2-0\""))
+                .andExpectAll(
+                        status().isOk(),
+                        header().string(HttpHeaders.ETAG, "\"item-2-1\""),
+                        jsonPath("$.id", Matchers.is(itemDtoByOwner.getId()), Long.class)
+                );
+    }
+
+    @Test
+    void findByIdItemOwnerViewTaggedFromBookings() throws Exception {
+        ItemDtoByOwner ownerView = ItemDtoByOwner.builder()
+                .id(2L)
+                .lastBooking(BookingDto.builder().id(3L).status(BookingStatus.APPROVED).build())
+                .nextBooking(BookingDto.builder().id(4L).status(BookingStatus.WAITING).build())
+                .comments(List.of())
+                .build();
+        when(itemService.findOwnerId(2L)).thenReturn(1L);
+        when(itemService.findItemTag(2L)).thenReturn("item-2-0");
+        when(itemService.findItemById(1L, 2L)).thenReturn(ownerView);
+
+        mockMvc.perform(get(URL + "/2")
+                        .header(Request.USER_ID, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"item-2-0\""))
+                .andExpectAll(
+                        status().isOk(),
+                        header().string(HttpHeaders.ETAG, "\"item-2-0-3.APPROVED-4.WAITING\"")
+                );
+
+        mockMvc.perform(get(URL + "/2")
+                        .header(Request.USER_ID, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"item-2-0-3.APPROVED-4.WAITING\""))
+                .andExpect(status().isNotModified());
+        verify(itemService, times(2)).findItemById(1L, 2L);
+    }
+
+    @Test
+    void findByIdItemMarksSharedView() throws Exception {
+        when(itemService.findOwnerId(2L)).thenReturn(5L);
+        when(itemService.findItemById(anyLong(), anyLong())).thenReturn(itemDtoByOwner);
+
+        mockMvc.perform(get(URL + "/2")
+                        .header(Request.USER_ID, 1L))
+                .andExpectAll(
+                        status().isOk(),
+                        header().string(Request.ITEM_OWNER, "5"),
+                        header().string(HttpHeaders.CACHE_CONTROL, Matchers.containsString("public"))
+                );
+
+        mockMvc.perform(get(URL + "/2")
+                        .header(Request.USER_ID, 5L))
+                .andExpectAll(
+                        status().isOk(),
+                        header().string(HttpHeaders.CACHE_CONTROL, Matchers.containsString("private"))
+                );
+    }
+
+    @Test
+    void succeedFindPopular() throws Exception {
+        when(popularityService.findPopular(Duration.ofHours(36), 5)).thenReturn(List.of(itemDto));
+
+        mockMvc.perform(get(URL + "/popular")
+                        .param("window", "36h")
+                        .param("size", "5"))
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$[0].id", Matchers.is(itemDto.getId()), Long.class)
+                );
+
+        mockMvc.perform(get(URL + "/popular"))
+                .andExpect(status().isOk());
+        verify(popularityService, times(1)).findPopular(Duration.ofDays(7), 10);
+    }
+
+    @Test
+    void failFindPopularWithSizeOutOfRange() throws Exception {
+        mockMvc.perform(get(URL + "/popular")
+                        .param("size", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(URL + "/popular")
+                        .param("size", "101"))
+                .andExpect(status().isBadRequest());
+        verify(popularityService, never()).findPopular(any(), anyInt());
+    }
+
     @Test
     void findByIdItemWithoutSharerUserId() throws Exception {
         when(itemService.findItemById(anyLong(), anyLong())).thenReturn(itemDtoByOwner);
@@ -158,7 +273,7 @@ public class ItemControllerTest {
     void succeedDeleteItemById() throws Exception {
         mockMvc.perform(delete(URL + "/2")
                         .header(Request.USER_ID, 1L))
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted());
 
         verify(itemService, times(1))
                 .removeItemById(anyLong(), anyLong());
@@ -172,4 +287,28 @@ public class ItemControllerTest {
         verify(itemService, times(0))
                 .removeItemById(anyLong(), anyLong());
     }
+
+    @Test
+    void succeedImportItems() throws Exception {
+        mockMvc.perform(post(URL + "/import")
+                        .header(Request.USER_ID, 1L)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\": \"table\", \"description\": \"black\", \"available\": true}"))
+                .andExpect(status().isOk());
+
+        verify(importService, times(1))
+                .importItems(eq(1L), eq(MediaType.APPLICATION_NDJSON), any(), any());
+    }
+
+    @Test
+    void importItemsWithUnsupportedFormat() throws Exception {
+        mockMvc.perform(post(URL + "/import")
+                        .header(Request.USER_ID, 1L)
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<items/>"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verify(importService, times(0))
+                .importItems(anyLong(), any(), any(), any());
+    }
 }
@@ -5,19 +5,30 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.constants.Request;
+import ru.practicum.shareit.exception.NotValidParameterException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoByOwner;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentEligibility;
+import ru.practicum.shareit.item.model.CommentEligibilityId;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -30,6 +41,9 @@ public class ItemIntegrationTest {
     @Autowired
     private ItemService itemService;
 
+    @Autowired
+    private ItemImportService importService;
+
     private final LocalDateTime now = LocalDateTime.now();
 
     private User owner;
@@ -69,6 +83,7 @@ public class ItemIntegrationTest {
                 .end(now.minusDays(4))
                 .build();
         em.persist(booking);
+        em.persist(new CommentEligibility(new CommentEligibilityId(booker.getId(), item.getId()), booking.getEnd()));
         // Бронирование пользователем booker2
         Booking booking2 = Booking.builder()
                 .item(item).booker(booker2).status(BookingStatus.APPROVED)
@@ -76,6 +91,7 @@ public class ItemIntegrationTest {
                 .end(now.minusDays(2))
                 .build();
         em.persist(booking2);
+        em.persist(new CommentEligibility(new CommentEligibilityId(booker2.getId(), item.getId()), booking2.getEnd()));
         // Комментарий пользователя booker2
         Comment comment2 = Comment.builder()
                 .text("table for the whole family")
@@ -166,4 +182,140 @@ public class ItemIntegrationTest {
                 .hasFieldOrPropertyWithValue("authorName", booker.getName());
 
     }
+
+    @Test
+    void addCommentFailByActiveRental() {
+        Booking booking = Booking.builder()
+                .item(item2).booker(booker).status(BookingStatus.APPROVED)
+                .start(now.minusDays(1))
+                .end(now.plusDays(1))
+                .build();
+        em.persist(booking);
+        em.persist(new CommentEligibility(new CommentEligibilityId(booker.getId(), item2.getId()), booking.getEnd()));
+
+        Assertions.assertThatThrownBy(() -> itemService.addComment(CommentDto.builder().text("nice").build(),
+                        booker.getId(), item2.getId()))
+                .isInstanceOf(NotValidParameterException.class)
+                .hasMessage("Необходимо завершить аренду вещи для написания комментария.");
+    }
+
+    @Test
+    void itemTagChangesWithUpdates() {
+        String itemTag = itemService.findItemTag(item.getId());
+        String ownerTag = ownerViewTag();
+        Assertions.assertThat(ownerTag).startsWith(itemTag).isNotEqualTo(itemTag);
+        Assertions.assertThat(itemService.findItemTag(item.getId())).isEqualTo(itemTag);
+
+        ItemDto updater = ItemMapper.doItemDto(item);
+        updater.setName("new table");
+        itemService.updateItem(updater, item.getId(), owner.getId());
+        em.flush();
+
+        Assertions.assertThat(itemService.findItemTag(item.getId())).isNotEqualTo(itemTag);
+        Assertions.assertThat(ownerViewTag()).isNotEqualTo(ownerTag);
+    }
+
+    @Test
+    void commentsChangeItemTagWithoutVersionCheck() {
+        String itemTag = itemService.findItemTag(item.getId());
+        long version = item.getVersion();
+        User booker2 = em.createQuery("select u from User u where u.email = 'booker2@example.com'", User.class)
+                .getSingleResult();
+
+        itemService.addComment(CommentDto.builder().text("perfect table").build(), booker.getId(), item.getId());
+        itemService.addComment(CommentDto.builder().text("still perfect").build(), booker2.getId(), item.getId());
+        em.flush();
+        em.clear();
+
+        Assertions.assertThat(em.find(Item.class, item.getId()).getVersion()).isEqualTo(version + 2);
+        Assertions.assertThat(itemService.findItemTag(item.getId())).isNotEqualTo(itemTag);
+    }
+
+    @Test
+    void ownerViewTagFollowsBookingsWithoutItemVersionBump() {
+        String itemTag = itemService.findItemTag(item.getId());
+        String ownerTag = ownerViewTag();
+
+        Booking next = Booking.builder()
+                .item(item).booker(booker).status(BookingStatus.WAITING)
+                .start(now.plusDays(1))
+                .end(now.plusDays(2))
+                .build();
+        em.persist(next);
+        em.flush();
+        String waitingTag = ownerViewTag();
+        Assertions.assertThat(waitingTag).isNotEqualTo(ownerTag);
+
+        next.setStatus(BookingStatus.APPROVED);
+        em.flush();
+        Assertions.assertThat(ownerViewTag()).isNotEqualTo(waitingTag);
+        Assertions.assertThat(itemService.findItemTag(item.getId())).isEqualTo(itemTag);
+    }
+
+    private String ownerViewTag() {
+        return ItemService.ownerViewTag(itemService.findItemTag(item.getId()),
+                itemService.findItemById(owner.getId(), item.getId()));
+    }
+
+    @Test
+    void importItemsFromNdjson() throws IOException {
+        ItemRequest request = ItemRequest.builder()
+                .description("lamp").requester(booker).created(now)
+                .build();
+        em.persist(request);
+        String body = "{\"name\": \"lamp\", \"description\": \"desk lamp\", \"available\": true, " +
+                "\"requestId\": " + request.getId() + "}\n" +
+                "\n" +
+                "{\"name\": \"sofa\", \"available\": true}\n" +
+                "{\"name\": \"shelf\", \"description\": \"oak\", \"available\": false, \"requestId\": 0}\n" +
+                "not json\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        importService.importItems(owner.getId(), MediaType.APPLICATION_NDJSON,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+
+        Assertions.assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+                "{\"fromLine\":3,\"toLine\":3,\"imported\":0,\"error\":\"Описание элемента пустое.\"}",
+                "{\"fromLine\":4,\"toLine\":4,\"imported\":0,\"error\":\"Запрос не найден.\"}",
+                "{\"fromLine\":5,\"toLine\":5,\"imported\":0,\"error\":\"Некорректный формат строки.\"}",
+                "{\"fromLine\":1,\"toLine\":5,\"imported\":1}");
+        Assertions.assertThat(itemService.findItemById(owner.getId(), item.getId())).isNotNull();
+        Assertions.assertThat(itemService.findAll(owner.getId(), 0, 10)).hasSize(3)
+                .anySatisfy(dto -> Assertions.assertThat(dto)
+                        .hasFieldOrPropertyWithValue("name", "lamp")
+                        .hasFieldOrPropertyWithValue("requestId", request.getId()));
+    }
+
+    @Test
+    void importItemsRejectsOversizedLines() throws IOException {
+        String body = "{\"name\": \"lamp\", \"description\": \"" + "x".repeat(10_000) + "\", \"available\": true}\n" +
+                "{\"name\": \"sofa\", \"description\": \"soft\", \"available\": true}\r\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        importService.importItems(owner.getId(), MediaType.APPLICATION_NDJSON,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+
+        Assertions.assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+                "{\"fromLine\":1,\"toLine\":1,\"imported\":0,\"error\":\"Строка длиннее 8192 символов.\"}",
+                "{\"fromLine\":1,\"toLine\":2,\"imported\":1}");
+    }
+
+    @Test
+    void importItemsFromCsv() throws IOException {
+        String body = "name,description,available\n" +
+                "bed,\"white, wide\",true\n" +
+                "lamp,green,maybe\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        importService.importItems(owner.getId(), MediaType.valueOf(Request.TEXT_CSV),
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+
+        Assertions.assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+                "{\"fromLine\":3,\"toLine\":3,\"imported\":0,\"error\":\"Некорректное значение доступности вещи.\"}",
+                "{\"fromLine\":2,\"toLine\":3,\"imported\":1}");
+        Assertions.assertThat(itemService.findItemByDescription("wide", 0, 10)).hasSize(1)
+                .first()
+                .hasFieldOrPropertyWithValue("name", "bed")
+                .hasFieldOrPropertyWithValue("description", "white, wide");
+    }
 }
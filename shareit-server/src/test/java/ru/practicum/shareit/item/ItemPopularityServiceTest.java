@@ -0,0 +1,146 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exception.NotValidParameterException;
+import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemViewedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.popularity.SpaceSavingSketch;
+import ru.practicum.shareit.item.service.ItemPopularityServiceImpl;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemPopularityServiceTest {
+    @Mock
+    private ItemDao itemDao;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private ItemPopularityServiceImpl service;
+
+    @BeforeEach
+    void setup() {
+        service = new ItemPopularityServiceImpl(itemDao, mapper, 3, Duration.ofDays(30), Duration.ofDays(1), "");
+    }
+
+    @Test
+    void sketchKeepsHeavyHittersWithinCapacity() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        for (int i = 0; i < 10; i++) {
+            sketch.offer(1L, 1);
+        }
+        sketch.offer(2L, 1);
+        sketch.offer(3L, 1);
+
+        Map<Long, Double> counts = sketch.getCounts();
+        assertEquals(2, counts.size());
+        assertEquals(10, counts.get(1L));
+        assertEquals(2, counts.get(3L));
+    }
+
+    @Test
+    void sketchEvictsCurrentMinimumAfterCountsChange() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(3);
+        sketch.offer(1L, 1);
+        sketch.offer(2L, 2);
+        sketch.offer(3L, 3);
+        sketch.offer(1L, 5);
+        sketch.offer(4L, 1);
+
+        Map<Long, Double> counts = sketch.getCounts();
+        assertEquals(Map.of(1L, 6.0, 3L, 3.0, 4L, 3.0), counts);
+    }
+
+    @Test
+    void concurrentViewsAreAllCounted() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        service.onItemViewed(new ItemViewedEvent(1L, 9L));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        for (int i = 0; i < 3999; i++) {
+            service.onItemViewed(new ItemViewedEvent(2L, 9L));
+        }
+        when(itemDao.findAllById(anyIterable())).thenReturn(List.of(item(1L), item(2L)));
+
+        List<ItemDto> popular = service.findPopular(Duration.ofDays(1), 2);
+
+        assertEquals(List.of(1L, 2L), popular.stream().map(ItemDto::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findPopularRanksByScore() {
+        service.onItemViewed(new ItemViewedEvent(1L, 9L));
+        service.onItemViewed(new ItemViewedEvent(2L, 9L));
+        service.onItemViewed(new ItemViewedEvent(2L, 9L));
+        when(itemDao.findAllById(anyIterable())).thenReturn(List.of(item(1L), item(2L)));
+
+        List<ItemDto> popular = service.findPopular(Duration.ofDays(7), 10);
+
+        assertEquals(List.of(2L, 1L), popular.stream().map(ItemDto::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findPopularFailByWindowOutOfRetention() {
+        NotValidParameterException exception = assertThrows(
+                NotValidParameterException.class,
+                () -> service.findPopular(Duration.ofDays(31), 10));
+
+        assertEquals("Окно популярности должно быть от 1 часа до 30 дней.", exception.getMessage());
+    }
+
+    @Test
+    void checkpointIsRestoredAfterRestart(@TempDir Path dir) {
+        String path = dir.resolve("popularity.json").toString();
+        ItemPopularityServiceImpl first = new ItemPopularityServiceImpl(itemDao, mapper, 3, Duration.ofDays(30),
+                Duration.ofDays(1), path);
+        first.onItemViewed(new ItemViewedEvent(4L, 9L));
+        first.checkpoint();
+
+        ItemPopularityServiceImpl restarted = new ItemPopularityServiceImpl(itemDao, mapper, 3, Duration.ofDays(30),
+                Duration.ofDays(1), path);
+        restarted.restore();
+        when(itemDao.findAllById(anyIterable())).thenReturn(List.of(item(4L)));
+
+        List<ItemDto> popular = restarted.findPopular(Duration.ofDays(1), 10);
+
+        assertEquals(1, popular.size());
+        assertEquals(4L, popular.get(0).getId());
+    }
+
+    private static Item item(long id) {
+        return Item.builder().id(id).name("item" + id).description("description").available(true).build();
+    }
+}
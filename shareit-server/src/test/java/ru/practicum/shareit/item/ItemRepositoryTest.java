@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item;
 
 import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.dto.ItemReplyView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -112,4 +114,25 @@ public class ItemRepositoryTest {
                 .ignoringFields("id")
                 .isEqualTo(List.of(item1, item2));
     }
+
+    @Test
+    void entitiesAndRepliesUseSecondLevelCache() {
+        SessionFactory sessionFactory = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class);
+
+        Assertions.assertThat(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()).isTrue();
+        Assertions.assertThat(sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled()).isTrue();
+        Assertions.assertThat(sessionFactory.getStatistics().isStatisticsEnabled()).isTrue();
+        Assertions.assertThat(sessionFactory.getStatistics().getSecondLevelCacheRegionNames())
+                .contains("users", "items", "requests", "item-replies");
+    }
+
+    @Test
+    void findLatestRepliesByRequesterIdCountsAllReplies() {
+        List<ItemReplyView> result = itemDao.findLatestRepliesByRequesterId(user.getId(), 1);
+
+        Assertions.assertThat(result).hasSize(1);
+        assertEquals(item2.getId(), result.get(0).getId());
+        assertEquals(itemRequest.getId(), result.get(0).getRequestId());
+        assertEquals(2L, result.get(0).getReplyCount());
+    }
 }
@@ -6,14 +6,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dao.BookingDao;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.deletion.dto.DeletionTaskDto;
+import ru.practicum.shareit.deletion.model.DeletionStatus;
+import ru.practicum.shareit.deletion.model.DeletionTarget;
+import ru.practicum.shareit.deletion.service.DeletionService;
 import ru.practicum.shareit.exception.NotAccessException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotValidParameterException;
 import ru.practicum.shareit.item.dao.CommentDao;
+import ru.practicum.shareit.item.dao.CommentEligibilityDao;
 import ru.practicum.shareit.item.dao.ItemDao;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -21,11 +28,15 @@ import ru.practicum.shareit.item.dto.ItemDtoByOwner;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentEligibility;
+import ru.practicum.shareit.item.model.CommentEligibilityId;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.user.dao.UserDao;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -49,6 +60,24 @@ public class ItemServiceTest {
     @Mock
     private CommentDao commentRepository;
 
+    @Mock
+    private CommentEligibilityDao eligibilityRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DeletionService deletionService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
     @InjectMocks
     private ItemServiceImpl service;
 
@@ -261,15 +290,18 @@ public class ItemServiceTest {
         long itemId = item.getId();
         when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
         when(repository.findById(itemId)).thenReturn(Optional.of(item));
-        when(bookingRepository
-                .findTopByStatusNotLikeAndBookerIdAndItemIdOrderByEndAsc(any(), anyLong(), anyLong()))
-                .thenReturn(booking);
+        when(eligibilityRepository.findById(new CommentEligibilityId(userId, itemId)))
+                .thenReturn(Optional.of(new CommentEligibility(new CommentEligibilityId(userId, itemId),
+                        booking.getEnd())));
         when(commentRepository.save(any())).thenReturn(comment);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
         CommentDto commentDto = service.addComment(CommentMapper.toCommentDto(comment), userId, itemId);
         assertNotNull(commentDto);
         assertEquals(comment.getId(), commentDto.getId());
 
         verify(commentRepository, times(1)).save(any());
+        verify(jdbcTemplate).update(anyString(), eq(itemId));
+        verify(cache, times(2)).evict(Item.class, itemId);
     }
 
     @Test
@@ -307,9 +339,7 @@ public class ItemServiceTest {
         String error = String.format("Пользователь %s не пользовался вещью %s.", owner.getName(), item.getName());
         when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(owner));
         when(repository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(bookingRepository
-                .findTopByStatusNotLikeAndBookerIdAndItemIdOrderByEndAsc(any(), anyLong(), anyLong()))
-                .thenThrow(new NotValidParameterException(error));
+        when(eligibilityRepository.findById(any())).thenReturn(Optional.empty());
 
         NotValidParameterException exception = assertThrows(
                 NotValidParameterException.class,
@@ -324,12 +354,18 @@ public class ItemServiceTest {
         long itemId = item.getId();
         when(repository.getReferenceById(itemId)).thenReturn(item);
         when(repository.findById(itemId)).thenReturn(Optional.of(item));
-        doNothing().when(repository).deleteById(itemId);
+        when(deletionService.scheduleItemDeletion(itemId)).thenReturn(DeletionTaskDto.builder()
+                .id(1L)
+                .target(DeletionTarget.ITEM)
+                .entityId(itemId)
+                .status(DeletionStatus.PENDING)
+                .build());
 
-        service.removeItemById(userId, itemId);
+        DeletionTaskDto task = service.removeItemById(userId, itemId);
 
+        assertEquals(DeletionStatus.PENDING, task.getStatus());
         verify(repository, times(1)).findById(any());
-        verify(repository, times(1)).deleteById(any());
+        verify(repository, never()).deleteById(any());
     }
 
     @Test
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Random;
+
+@JsonTest
+public class LocalDateTimeSerializerTest {
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Test
+    void replacesDefaultSerializer() throws Exception {
+        Assertions.assertThat(mapper.getSerializerProviderInstance().findValueSerializer(LocalDateTime.class))
+                .isInstanceOf(LocalDateTimeSerializer.class);
+    }
+
+    @Test
+    void writesIsoLocalDateTime() throws Exception {
+        List<LocalDateTime> values = List.of(
+                LocalDateTime.of(2023, 1, 5, 9, 0),
+                LocalDateTime.of(2023, 12, 31, 23, 59, 59, 100_000_000),
+                LocalDateTime.of(1, 2, 3, 4, 5, 6, 7),
+                LocalDateTime.of(12345, 6, 7, 8, 9),
+                LocalDateTime.of(-44, 3, 15, 12, 0)
+        );
+        for (LocalDateTime value : values) {
+            assertIso(value);
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            assertIso(LocalDateTime.of(random.nextInt(3000), random.nextInt(12) + 1, random.nextInt(28) + 1,
+                    random.nextInt(24), random.nextInt(60), random.nextInt(60),
+                    random.nextBoolean() ? random.nextInt(1_000_000_000) : random.nextInt(1000) * 1_000_000));
+        }
+    }
+
+    private void assertIso(LocalDateTime value) throws Exception {
+        Assertions.assertThat(mapper.writeValueAsString(value))
+                .isEqualTo("\"" + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value) + "\"");
+    }
+}
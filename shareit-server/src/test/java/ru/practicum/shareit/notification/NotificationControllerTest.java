@@ -0,0 +1,103 @@
+package ru.practicum.shareit.notification;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.constants.Request;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.notification.controller.NotificationController;
+import ru.practicum.shareit.notification.model.NotificationType;
+import ru.practicum.shareit.notification.service.NotificationService;
+import ru.practicum.shareit.notification.service.NotificationServiceImpl;
+import ru.practicum.shareit.user.service.UserExistenceService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = NotificationController.class)
+@Import(NotificationServiceImpl.class)
+public class NotificationControllerTest {
+    private static final String URL = "http://localhost:8080/events";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @MockBean
+    private UserExistenceService userExistence;
+
+    @Test
+    void subscribeReceivesPublishedEvents() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get(URL)
+                        .header(Request.USER_ID, 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+
+        notificationService.publish(1L, NotificationType.BOOKING_APPROVED, 5L);
+        notificationService.publish(2L, NotificationType.BOOKING_REJECTED, 6L);
+
+        String content = awaitContent(response, "\"entityId\":5");
+        assertThat(content).contains("event:BookingApproved").doesNotContain("BookingRejected");
+    }
+
+    @Test
+    void subscribeReplaysEventsAfterLastEventId() throws Exception {
+        notificationService.publish(3L, NotificationType.BOOKING_APPROVED, 7L);
+        notificationService.publish(3L, NotificationType.REQUEST_ANSWERED, 8L);
+
+        MockHttpServletResponse first = mockMvc.perform(get(URL)
+                        .header(Request.USER_ID, 3L)
+                        .header(Request.LAST_EVENT_ID, 0L))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+        String replayed = awaitContent(first, "\"entityId\":8");
+        String lastEventId = replayed.lines()
+                .filter(line -> line.startsWith("id:"))
+                .findFirst()
+                .orElseThrow()
+                .substring("id:".length());
+
+        MockHttpServletResponse second = mockMvc.perform(get(URL)
+                        .header(Request.USER_ID, 3L)
+                        .header(Request.LAST_EVENT_ID, lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+
+        String content = awaitContent(second, "\"entityId\":8");
+        assertThat(content).doesNotContain("BookingApproved");
+    }
+
+    @Test
+    void subscribeFailByUserNotFound() throws Exception {
+        doThrow(new NotFoundException("Пользователь с запрашиваемым айди не зарегистрирован."))
+                .when(userExistence).checkUserAvailability(anyLong());
+
+        mockMvc.perform(get(URL)
+                        .header(Request.USER_ID, 1L))
+                .andExpect(status().isNotFound());
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = response.getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+}
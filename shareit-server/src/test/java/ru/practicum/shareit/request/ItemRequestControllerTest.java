@@ -9,18 +9,25 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.constants.Request;
+import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.request.controller.ItemRequestController;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoByOwner;
+import ru.practicum.shareit.request.dto.ItemRequestFeedDto;
+import ru.practicum.shareit.request.dto.ItemRequestSummaryDto;
+import ru.practicum.shareit.request.dto.RequestSuggestionDto;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -82,4 +89,68 @@ public class ItemRequestControllerTest {
                         jsonPath("$.description", Matchers.is(itemRequestDto.getDescription()))
                 );
     }
+
+    @Test
+    void succeedFindFeed() throws Exception {
+        when(itemRequestService.findFeed(anyLong(), any(), anyInt()))
+                .thenReturn(new ItemRequestFeedDto(List.of(itemRequestDtoByOwner), "cursor"));
+
+        mockMvc.perform(get(URL + "/feed")
+                        .header(Request.USER_ID, 1L)
+                        .param("size", "1"))
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$.requests[0].id", Matchers.is(itemRequestDto.getId()), Long.class),
+                        jsonPath("$.nextCursor", Matchers.is("cursor"))
+                );
+    }
+
+    @Test
+    void succeedFindSuggestions() throws Exception {
+        RequestSuggestionDto suggestion = new RequestSuggestionDto(2L, "board", 1L, "cutting board", 2,
+                LocalDateTime.now());
+        when(itemRequestService.findSuggestions(anyLong())).thenReturn(List.of(suggestion));
+
+        mockMvc.perform(get(URL + "/suggestions")
+                        .header(Request.USER_ID, 1L))
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$[0].itemId", Matchers.is(suggestion.getItemId()), Long.class),
+                        jsonPath("$[0].requestId", Matchers.is(suggestion.getRequestId()), Long.class),
+                        jsonPath("$[0].score", Matchers.is(suggestion.getScore()))
+                );
+    }
+
+    @Test
+    void succeedFindAllSummary() throws Exception {
+        ItemRequestSummaryDto summary = ItemRequestSummaryDto.builder()
+                .id(1L)
+                .description("cutting board")
+                .replyCount(250L)
+                .latestReplies(List.of())
+                .build();
+        when(itemRequestService.findAllUsersRequestsSummary(anyLong(), anyInt())).thenReturn(List.of(summary));
+
+        mockMvc.perform(get(URL + "/summary")
+                        .header(Request.USER_ID, 1L)
+                        .param("replies", "2"))
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$[0].id", Matchers.is(summary.getId()), Long.class),
+                        jsonPath("$[0].replyCount", Matchers.is(summary.getReplyCount()), Long.class)
+                );
+    }
+
+    @Test
+    void findAllWithRepliesMarksUnknownUser() throws Exception {
+        when(itemRequestService.findAllUsersRequestsWithReplies(anyLong()))
+                .thenThrow(new UserNotFoundException("Пользователь с запрашиваемым айди не зарегистрирован."));
+
+        mockMvc.perform(get(URL)
+                        .header(Request.USER_ID, 100L))
+                .andExpectAll(
+                        status().isNotFound(),
+                        header().string(Request.UNKNOWN_USER, "true")
+                );
+    }
 }
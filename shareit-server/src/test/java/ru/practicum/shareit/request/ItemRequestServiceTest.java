@@ -6,26 +6,35 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.NotValidParameterException;
+import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dao.ItemRequestDao;
+import ru.practicum.shareit.request.dao.RequestSuggestionDao;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoByOwner;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
 import ru.practicum.shareit.user.dao.UserDao;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceService;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,9 +47,18 @@ public class ItemRequestServiceTest {
     @Mock
     private UserDao userRepository;
 
+    @Mock
+    private UserExistenceService userExistence;
+
     @Mock
     private ItemDao itemRepository;
 
+    @Mock
+    private RequestSuggestionDao suggestionRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ItemRequestServiceImpl service;
 
@@ -110,7 +128,6 @@ public class ItemRequestServiceTest {
     @Test
     void succeedFindAllByRequesterId() {
         long userId = requester.getId();
-        when(userRepository.existsById(userId)).thenReturn(true);
         when(repository.findAllByRequesterId(userId)).thenReturn(List.of(request));
 
         List<ItemRequestDtoByOwner> requests = service.findAllUsersRequestsWithReplies(userId);
@@ -134,6 +151,30 @@ public class ItemRequestServiceTest {
         assertEquals(1, requestDto.size());
     }
 
+    @Test
+    void findAllGroupsRepliesByRequest() {
+        long userId = 3L;
+        ItemRequest otherRequest = ItemRequest.builder()
+                .id(2L)
+                .requester(requester)
+                .created(LocalDateTime.now())
+                .build();
+        PageRequest pageRequest = PageRequest.of(0, 10, SORT);
+        when(repository.findAllByRequesterIdNot(userId, pageRequest)).thenReturn(List.of(request, otherRequest));
+        when(itemRepository.findRepliesByRequestIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                new ItemDto(4L, "table", "red", true, 1L),
+                new ItemDto(5L, "lamp", "green", true, 2L),
+                new ItemDto(6L, "chair", "blue", true, 2L)));
+
+        List<ItemRequestDtoByOwner> requests = service.findAll(userId, 0, 10);
+
+        assertEquals(2, requests.size());
+        assertEquals(List.of(4L), requests.get(0).getItems().stream().map(ItemDto::getId).collect(Collectors.toList()));
+        assertEquals(List.of(5L, 6L), requests.get(1).getItems().stream().map(ItemDto::getId)
+                .collect(Collectors.toList()));
+        verify(itemRepository, times(1)).findRepliesByRequestIdIn(any());
+    }
+
     @Test
     void findAllReturnEmptyList() {
         long userId = requester.getId();
@@ -151,10 +192,9 @@ public class ItemRequestServiceTest {
     @Test
     void findByIdWithReplies() {
         long userId = requester.getId();
-        when(userRepository.existsById(userId)).thenReturn(true);
         long requestId = request.getId();
         when(repository.findById(requestId)).thenReturn(Optional.of(request));
-        when(itemRepository.findByRequestId(requestId)).thenReturn(List.of(item));
+        when(itemRepository.findRepliesByRequestIdIn(List.of(requestId))).thenReturn(List.of(ItemMapper.doItemDto(item)));
 
         ItemRequestDtoByOwner requestDto = service.findByIdWithReplies(userId, requestId);
 
@@ -163,4 +203,29 @@ public class ItemRequestServiceTest {
         assertEquals(1, requestDto.getItems().size());
         assertEquals(item.getId(), requestDto.getItems().get(0).getId());
     }
+
+    @Test
+    void findFeedFailByWrongCursor() {
+        NotValidParameterException exception = assertThrows(
+                NotValidParameterException.class,
+                () -> service.findFeed(requester.getId(), "not-a-cursor", 10)
+        );
+
+        assertEquals("Некорректный курсор ленты запросов.", exception.getMessage());
+        verify(repository, times(0)).findFeedPageAfter(anyLong(), any(), anyLong(), any());
+    }
+
+    @Test
+    void findFeedFailByUnknownUser() {
+        String error = "Пользователь с запрашиваемым айди не зарегистрирован.";
+        doThrow(new UserNotFoundException(error)).when(userExistence).checkUserAvailability(99L);
+
+        UserNotFoundException exception = assertThrows(
+                UserNotFoundException.class,
+                () -> service.findFeed(99L, null, 10)
+        );
+
+        assertEquals(error, exception.getMessage());
+        verify(repository, times(0)).findFeedPage(anyLong(), any());
+    }
 }
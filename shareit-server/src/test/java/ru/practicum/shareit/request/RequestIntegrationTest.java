@@ -1,16 +1,26 @@
 package ru.practicum.shareit.request;
 
 import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoByOwner;
+import ru.practicum.shareit.request.dto.ItemRequestFeedDto;
+import ru.practicum.shareit.request.dto.ItemRequestSummaryDto;
+import ru.practicum.shareit.request.dto.RequestSuggestionDto;
+import ru.practicum.shareit.request.event.ItemRequestRepliesChangedEvent;
+import ru.practicum.shareit.request.matching.RequestTermIndex;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.request.service.RequestSuggestionListener;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.EntityManager;
@@ -30,6 +40,15 @@ public class RequestIntegrationTest {
     @Autowired
     private ItemRequestService itemRequestService;
 
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private RequestTermIndex index;
+
+    @Autowired
+    private RequestSuggestionListener suggestionListener;
+
     private User owner;
     private User user;
     private ItemRequest request;
@@ -123,4 +142,156 @@ public class RequestIntegrationTest {
         assertThat(itemRequestDto.getDescription(), Matchers.is(request.getDescription()));
         assertThat(result.getRequester(), Matchers.is(user));
     }
+
+    @Test
+    void findFeedPagesWithCursor() {
+        Long userId = owner.getId();
+
+        ItemRequestFeedDto first = itemRequestService.findFeed(userId, null, 1);
+
+        Assertions.assertThat(first.getRequests()).hasSize(1);
+        Assertions.assertThat(first.getRequests().get(0).getId()).isEqualTo(request.getId());
+        Assertions.assertThat(first.getNextCursor()).isNotNull();
+
+        ItemRequestFeedDto second = itemRequestService.findFeed(userId, first.getNextCursor(), 1);
+
+        Assertions.assertThat(second.getRequests()).hasSize(1);
+        Assertions.assertThat(second.getRequests().get(0).getDescription()).isEqualTo("chair");
+        Assertions.assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void findFeedLoadsRequestersWithRequests() {
+        em.flush();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ItemRequestFeedDto feed = itemRequestService.findFeed(owner.getId(), null, 10);
+
+        Assertions.assertThat(feed.getRequests()).hasSize(2);
+        Assertions.assertThat(statistics.getEntityFetchCount()).isZero();
+    }
+
+    @Test
+    void createItemSuggestsMatchingRequests() {
+        ItemRequestDto wanted = itemRequestService.createRequest(user.getId(), ItemRequestDto.builder()
+                .description("Нужна дрель для бетона")
+                .build());
+        ItemRequestDto other = itemRequestService.createRequest(user.getId(), ItemRequestDto.builder()
+                .description("Нужен велосипед")
+                .build());
+        Assertions.assertThat(index.match("дрель бетона")).doesNotContainKey(wanted.getId());
+        // Индекс пополняется только после фиксации транзакции, которую тест не фиксирует
+        index.add(wanted.getId(), wanted.getDescription());
+        index.add(other.getId(), other.getDescription());
+
+        ItemDto item = itemService.createItem(ItemDto.builder()
+                .name("Дрель")
+                .description("Ударная, сверлит бетон")
+                .available(true)
+                .build(), owner.getId());
+
+        List<RequestSuggestionDto> suggestions = itemRequestService.findSuggestions(owner.getId());
+
+        Assertions.assertThat(suggestions).hasSize(1);
+        Assertions.assertThat(suggestions.get(0).getItemId()).isEqualTo(item.getId());
+        Assertions.assertThat(suggestions.get(0).getRequestId()).isEqualTo(wanted.getId());
+        Assertions.assertThat(itemRequestService.findSuggestions(user.getId())).isEmpty();
+        index.remove(wanted.getId());
+        index.remove(other.getId());
+    }
+
+    @Test
+    void replyRemovesSuggestionsForAnsweredRequest() {
+        ItemRequestDto wanted = itemRequestService.createRequest(user.getId(), ItemRequestDto.builder()
+                .description("Нужна дрель для бетона")
+                .build());
+        index.add(wanted.getId(), wanted.getDescription());
+        itemService.createItem(ItemDto.builder()
+                .name("Дрель")
+                .description("Ударная")
+                .available(true)
+                .build(), owner.getId());
+        Assertions.assertThat(itemRequestService.findSuggestions(owner.getId())).hasSize(1);
+
+        itemService.createItem(ItemDto.builder()
+                .name("Перфоратор")
+                .description("Для бетона")
+                .available(true)
+                .requestId(wanted.getId())
+                .build(), owner.getId());
+
+        Assertions.assertThat(itemRequestService.findSuggestions(owner.getId())).isEmpty();
+        index.remove(wanted.getId());
+    }
+
+    @Test
+    void topIgnoresStopWordsAndWeakMatches() {
+        index.add(-1L, "Нужна дрель для бетона");
+        index.add(-2L, "Ищу садовую тачку для дачи");
+        index.add(-3L, "Садовая тачка или садовая тележка");
+
+        Assertions.assertThat(index.top("Нужна лампа для стола", 10, 2)).isEmpty();
+        Assertions.assertThat(index.top("Тачку садовую отдам", 10, 2)).containsOnlyKeys(-2L);
+        Assertions.assertThat(index.top("Дрель", 10, 2)).containsOnlyKeys(-1L);
+        Assertions.assertThat(index.top("садовая тачка тачку садовую дрель", 2, 2).keySet())
+                .containsExactly(-2L, -3L);
+        index.remove(-1L);
+        index.remove(-2L);
+        index.remove(-3L);
+    }
+
+    @Test
+    void repliesChangedRefreshesOpenRequestIndex() {
+        index.add(request.getId(), request.getDescription());
+        ItemDto reply = itemService.createItem(ItemDto.builder()
+                .name("table")
+                .description("oak")
+                .available(true)
+                .requestId(request.getId())
+                .build(), owner.getId());
+        em.flush();
+
+        suggestionListener.onRepliesChanged(new ItemRequestRepliesChangedEvent(List.of(request.getId())));
+        Assertions.assertThat(index.match("table")).doesNotContainKey(request.getId());
+
+        reply.setRequestId(null);
+        itemService.updateItem(reply, reply.getId(), owner.getId());
+        em.flush();
+
+        suggestionListener.onRepliesChanged(new ItemRequestRepliesChangedEvent(List.of(request.getId())));
+        Assertions.assertThat(index.match("table")).containsKey(request.getId());
+        index.remove(request.getId());
+    }
+
+    @Test
+    void findAllUsersRequestsSummaryLimitsReplies() {
+        for (int i = 0; i < 3; i++) {
+            itemService.createItem(ItemDto.builder()
+                    .name("table " + i)
+                    .description("wooden")
+                    .available(true)
+                    .requestId(request.getId())
+                    .build(), owner.getId());
+        }
+
+        List<ItemRequestSummaryDto> summaries = itemRequestService.findAllUsersRequestsSummary(user.getId(), 2);
+
+        Assertions.assertThat(summaries).hasSize(2);
+        ItemRequestSummaryDto answered = summaries.stream()
+                .filter(summary -> summary.getId().equals(request.getId()))
+                .findFirst()
+                .orElseThrow();
+        Assertions.assertThat(answered.getReplyCount()).isEqualTo(3L);
+        Assertions.assertThat(answered.getLatestReplies()).hasSize(2)
+                .extracting(ItemDto::getName)
+                .containsExactly("table 2", "table 1");
+
+        Assertions.assertThat(itemRequestService.findAllUsersRequestsSummary(user.getId(), 0))
+                .allSatisfy(summary -> Assertions.assertThat(summary.getLatestReplies()).isEmpty())
+                .extracting(ItemRequestSummaryDto::getReplyCount)
+                .containsExactlyInAnyOrder(3L, 0L);
+    }
 }
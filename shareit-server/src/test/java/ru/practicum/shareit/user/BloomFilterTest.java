@@ -0,0 +1,37 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.existence.BloomFilter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+    @Test
+    void containsEveryAddedValue() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (long id = 1; id <= 1000; id++) {
+            filter.put(id);
+        }
+
+        for (long id = 1; id <= 1000; id++) {
+            assertTrue(filter.mightContain(id));
+        }
+        assertFalse(filter.isSaturated());
+    }
+
+    @Test
+    void keepsFalsePositiveRateNearConfigured() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (long id = 1; id <= 1000; id++) {
+            filter.put(id);
+        }
+
+        long falsePositives = 0;
+        for (long id = 1001; id <= 11000; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "Ложных срабатываний: " + falsePositives);
+    }
+}
@@ -12,12 +12,16 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import ru.practicum.shareit.user.controller.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserExportService;
+import ru.practicum.shareit.user.service.UserProvisioningService;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -37,6 +41,12 @@ public class UserControllerTest {
     @MockBean
     private UserServiceImpl userService;
 
+    @MockBean
+    private UserExportService exportService;
+
+    @MockBean
+    private UserProvisioningService provisioningService;
+
     private final UserDto userDto = new UserDto(1L, "Nick", "nick@mail.ru");
 
     @AfterEach
@@ -128,16 +138,18 @@ public class UserControllerTest {
     @Test
     void succeedDeleteUser() throws Exception {
         mockMvc.perform(delete(URL + "/1"))
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted());
         verify(userService, times(1))
                 .removeUserById(anyLong());
     }
 
     @Test
     void findAllWithUsers() throws Exception {
-        when(userService.findAll()).thenReturn(List.of(userDto));
+        when(userService.findAll(anyInt(), anyInt())).thenReturn(List.of(userDto));
 
-        mockMvc.perform(get(URL))
+        mockMvc.perform(get(URL)
+                        .param("from", "0")
+                        .param("size", "10"))
                 .andExpectAll(
                         status().isOk(),
                         jsonPath("$[0].id", Matchers.is(userDto.getId()), Long.class),
@@ -148,11 +160,55 @@ public class UserControllerTest {
 
     @Test
     void findAllWhenUsersListIsEmpty() throws Exception {
-        mockMvc.perform(get(URL))
+        mockMvc.perform(get(URL)
+                        .param("size", "10"))
                 .andExpectAll(
                         status().isOk(),
                         MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON),
                         MockMvcResultMatchers.content().json("[]")
                 );
     }
+
+    @Test
+    void findAllWithoutPagingStreamsEveryUser() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write(mapper.writeValueAsBytes(List.of(userDto)));
+            return null;
+        }).when(exportService).writeAllUsers(any());
+
+        mockMvc.perform(get(URL))
+                .andExpectAll(
+                        status().isOk(),
+                        MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON),
+                        jsonPath("$[0].id", Matchers.is(userDto.getId()), Long.class)
+                );
+        verify(userService, never()).findAll(anyInt(), anyInt());
+    }
+
+    @Test
+    void findAllAfterIdUsesKeyset() throws Exception {
+        when(userService.findAllAfter(anyLong(), anyInt())).thenReturn(List.of(userDto));
+
+        mockMvc.perform(get(URL)
+                        .param("afterId", "0")
+                        .param("size", "1"))
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$[0].id", Matchers.is(userDto.getId()), Long.class)
+                );
+        verify(userService, times(1)).findAllAfter(0L, 1);
+        verify(userService, never()).findAll(anyInt(), anyInt());
+    }
+
+    @Test
+    void provisionUsersStreamsNdjson() throws Exception {
+        mockMvc.perform(post(URL + "/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"Nick\",\"email\":\"nick@mail.ru\"}\n"))
+                .andExpectAll(
+                        status().isOk(),
+                        MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON)
+                );
+        verify(provisioningService, times(1)).provisionUsers(any(), any());
+    }
 }
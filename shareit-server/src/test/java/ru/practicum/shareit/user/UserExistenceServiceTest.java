@@ -0,0 +1,79 @@
+package ru.practicum.shareit.user;
+
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.dao.UserDao;
+import ru.practicum.shareit.user.service.UserExistenceServiceImpl;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceServiceTest {
+    @Mock
+    private UserDao userDao;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactoryImpl sessionFactory;
+
+    @Mock
+    private ServiceRegistryImplementor serviceRegistry;
+
+    @Mock
+    private EventListenerRegistry listenerRegistry;
+
+    private UserExistenceServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        when(entityManagerFactory.unwrap(SessionFactoryImpl.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getServiceRegistry()).thenReturn(serviceRegistry);
+        when(serviceRegistry.getService(EventListenerRegistry.class)).thenReturn(listenerRegistry);
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        service = new UserExistenceServiceImpl(userDao, transactionTemplate, entityManagerFactory, 2, 0.01,
+                100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void userCommittedAfterRebuildSnapshotIsNotLost() {
+        when(userDao.streamAllIds())
+                .thenReturn(Stream.of(1L, 2L, 3L))
+                .thenReturn(Stream.of(1L, 2L, 3L))
+                .thenReturn(Stream.of(1L, 2L, 3L, 100L));
+        when(userDao.existsById(100L)).thenReturn(true);
+        service.init();
+        // Пользователь вставлен до перестроения, но его транзакция зафиксирована после снимка
+        service.registerUser(100L);
+
+        service.rebuildIfSaturated();
+        assertTrue(service.exists(100L));
+
+        service.rebuildIfSaturated();
+        assertTrue(service.exists(100L));
+        verify(userDao, times(3)).streamAllIds();
+    }
+}
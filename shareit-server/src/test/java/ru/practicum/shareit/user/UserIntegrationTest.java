@@ -1,19 +1,29 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dao.UserDao;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceService;
+import ru.practicum.shareit.user.service.UserExportService;
+import ru.practicum.shareit.user.service.UserProvisioningService;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Transactional
 @SpringBootTest
@@ -24,6 +34,14 @@ public class UserIntegrationTest {
     private UserDao userDao;
     @Autowired
     private UserService userService;
+    @Autowired
+    private UserExistenceService userExistence;
+    @Autowired
+    private UserExportService exportService;
+    @Autowired
+    private UserProvisioningService provisioningService;
+    @Autowired
+    private ObjectMapper mapper;
 
     private User user1;
     private User user2;
@@ -70,6 +88,7 @@ public class UserIntegrationTest {
         Assertions.assertThat(beforeDelete).isEqualTo(2);
 
         userService.removeUserById(userId);
+        em.clear();
 
         long afterDelete = userDao.count();
         Assertions.assertThat(afterDelete).isEqualTo(1);
@@ -81,7 +100,7 @@ public class UserIntegrationTest {
 
     @Test
     void findAll() {
-        List<UserDto> list = userService.findAll();
+        List<UserDto> list = userService.findAll(0, 10);
 
         Assertions.assertThat(list)
                 .isNotEmpty()
@@ -90,4 +109,86 @@ public class UserIntegrationTest {
                 .comparingOnlyFields("id", "name", "email")
                 .isEqualTo(List.of(user1, user2));
     }
-}
\ No newline at end of file
+
+    @Test
+    void userExistenceFollowsCreateAndRemove() {
+        Assertions.assertThat(userExistence.exists(user1.getId())).isTrue();
+
+        UserDto created = userService.createUser(UserDto.builder().name("fred").email("fred@example.com").build());
+        Assertions.assertThat(userExistence.exists(created.getId())).isTrue();
+
+        userService.removeUserById(created.getId());
+        em.flush();
+        Assertions.assertThat(userExistence.exists(created.getId())).isFalse();
+    }
+
+    @Test
+    void checkUserAvailabilityFailsForUnknownUser() {
+        NotFoundException exception = org.junit.jupiter.api.Assertions.assertThrows(
+                NotFoundException.class,
+                () -> userExistence.checkUserAvailability(user2.getId() + 1000));
+
+        Assertions.assertThat(exception.getMessage()).isEqualTo("Пользователь с запрашиваемым айди не зарегистрирован.");
+    }
+
+    @Test
+    void findAllAfterPagesById() {
+        List<UserDto> first = userService.findAllAfter(0, 1);
+        List<UserDto> second = userService.findAllAfter(first.get(0).getId(), 1);
+
+        Assertions.assertThat(first).hasSize(1);
+        Assertions.assertThat(first.get(0).getId()).isEqualTo(user1.getId());
+        Assertions.assertThat(second).hasSize(1);
+        Assertions.assertThat(second.get(0).getId()).isEqualTo(user2.getId());
+        Assertions.assertThat(userService.findAllAfter(user2.getId(), 1)).isEmpty();
+    }
+
+    @Test
+    void exportUsersWritesOneLinePerUser() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportUsers(out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+        Assertions.assertThat(lines).hasSize(2);
+        Assertions.assertThat(lines.get(0)).contains("\"email\":\"user@example.com\"");
+        Assertions.assertThat(lines.get(1)).contains("\"email\":\"admin@example.com\"");
+    }
+
+    @Test
+    void writeAllUsersWritesJsonArray() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.writeAllUsers(out);
+
+        UserDto[] users = mapper.readValue(out.toByteArray(), UserDto[].class);
+        Assertions.assertThat(users).extracting(UserDto::getEmail)
+                .containsExactly("user@example.com", "admin@example.com");
+    }
+
+    @Test
+    void provisionUsersReportsOutcomePerLine() throws IOException {
+        String body = "{\"name\":\"owner\",\"email\":\"owner@example.com\"}\n" +
+                "{\"name\":\"user\",\"email\":\"user@example.com\"}\n" +
+                "\n" +
+                "{\"name\":\"\",\"email\":\"blank@example.com\"}\n" +
+                "{\"name\":\"copy\",\"email\":\"owner@example.com\"}\n" +
+                "not json\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        provisioningService.provisionUsers(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+        User owner = em.createQuery("select u from User u where u.email = :email", User.class)
+                .setParameter("email", "owner@example.com")
+                .getSingleResult();
+        Assertions.assertThat(lines).containsExactly(
+                "{\"line\":1,\"status\":\"CREATED\",\"id\":" + owner.getId() + ",\"email\":\"owner@example.com\"}",
+                "{\"line\":2,\"status\":\"DUPLICATE\",\"id\":" + user1.getId() + ",\"email\":\"user@example.com\"}",
+                "{\"line\":4,\"status\":\"REJECTED\",\"error\":\"Имя пользователя не указано.\"}",
+                "{\"line\":5,\"status\":\"DUPLICATE\",\"id\":" + owner.getId() + ",\"email\":\"owner@example.com\"}",
+                "{\"line\":6,\"status\":\"REJECTED\",\"error\":\"Некорректный формат строки.\"}");
+        Assertions.assertThat(owner.getName()).isEqualTo("owner");
+        Assertions.assertThat(userExistence.exists(owner.getId())).isTrue();
+    }
+}
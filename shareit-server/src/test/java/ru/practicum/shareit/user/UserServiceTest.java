@@ -6,6 +6,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.deletion.dto.DeletionTaskDto;
+import ru.practicum.shareit.deletion.model.DeletionStatus;
+import ru.practicum.shareit.deletion.model.DeletionTarget;
+import ru.practicum.shareit.deletion.service.DeletionService;
 import ru.practicum.shareit.exception.AlreadyExistException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dao.UserDao;
@@ -19,6 +23,8 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +32,9 @@ class UserServiceTest {
     @Mock
     private UserDao repository;
 
+    @Mock
+    private DeletionService deletionService;
+
     @InjectMocks
     private UserServiceImpl service;
 
@@ -166,9 +175,9 @@ class UserServiceTest {
 
     @Test
     void succeedFindAll() {
-        when(repository.findAll()).thenReturn(List.of(user));
+        when(repository.findAllBy(any())).thenReturn(List.of(user));
 
-        List<UserDto> users = service.findAll();
+        List<UserDto> users = service.findAll(0, 10);
 
         assertNotNull(users);
         assertEquals(1, users.size());
@@ -176,9 +185,9 @@ class UserServiceTest {
 
     @Test
     void succeedFindAllWithoutUsers() {
-        when(repository.findAll()).thenReturn(Collections.emptyList());
+        when(repository.findAllBy(any())).thenReturn(Collections.emptyList());
 
-        List<UserDto> users = service.findAll();
+        List<UserDto> users = service.findAll(0, 10);
 
         assertNotNull(users);
         assertEquals(0, users.size());
@@ -188,17 +197,17 @@ class UserServiceTest {
     void succeedRemoveUser() {
         long userId = 1L;
 
-        service.removeUserById(userId);
-
-        verify(repository, times(1)).deleteById(userId);
-    }
+        DeletionTaskDto task = DeletionTaskDto.builder()
+                .id(1L)
+                .target(DeletionTarget.USER)
+                .entityId(userId)
+                .status(DeletionStatus.PENDING)
+                .build();
+        when(deletionService.scheduleUserDeletion(userId)).thenReturn(task);
 
-    @Test
-    void checkUserAvailability() {
-        NotFoundException exception = assertThrows(
-                NotFoundException.class,
-                () -> UserServiceImpl.checkUserAvailability(repository, 5L));
+        DeletionTaskDto result = service.removeUserById(userId);
 
-        assertEquals("Пользователь с запрашиваемым айди не зарегистрирован.", exception.getMessage());
+        assertEquals(task, result);
+        verify(repository, never()).deleteById(anyLong());
     }
 }